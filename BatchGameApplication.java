@@ -0,0 +1,220 @@
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import com.snakeladder.factory.BoardGeneratorFactory;
+import com.snakeladder.model.GameLevel;
+import com.snakeladder.simulation.GameSimulator;
+import com.snakeladder.simulation.SimulationResult;
+import com.snakeladder.simulation.SimulationSpec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Headless counterpart of GameApplication for pipelines. Reads a job file,
+ * plays every job's games on a worker pool and writes one CSV row per game
+ * to the output file:
+ *
+ *   job,game,winner,turns,extra_turns,revoked_turns
+ *
+ * where job is the job's position in the file, winner is the 1-based seat
+ * or 0 if the game hit the turn cap. Workers encode chunks of rows into
+ * their own buffers and the main thread writes the chunks to a FileChannel
+ * in job and game order. At most a few chunks per thread are in flight, so
+ * memory stays bounded however many games the file asks for, and the file
+ * is the same for any thread count.
+ *
+ * Job file, one job per line, blank lines and # comments ignored:
+ *   size level generator boardSeed players games [diceSeed]
+ * for example "10 MEDIUM BALANCED 42 2 1000000". The dice seed defaults to
+ * the job's position.
+ *
+ * Usage: BatchGameApplication jobFile outputFile [threads]
+ */
+public class BatchGameApplication {
+    private static final int GAMES_PER_CHUNK = 4096;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+    // Longest possible row: six longs with separators
+    private static final int MAX_ROW_BYTES = 6 * 21;
+    private static final byte[] HEADER =
+        "job,game,winner,turns,extra_turns,revoked_turns\n".getBytes(StandardCharsets.US_ASCII);
+    
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BatchGameApplication jobFile outputFile [threads]");
+            System.exit(1);
+        }
+        try {
+            List<BatchJob> jobs = readJobs(Paths.get(args[0]));
+            int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            
+            long start = System.nanoTime();
+            long bytes = run(jobs, Paths.get(args[1]), threads);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            
+            long games = 0;
+            for (BatchJob job : jobs) {
+                System.out.printf("Job %d: %s%n%s", job.index, job.spec, job.result);
+                games += job.spec.getGameCount();
+            }
+            System.out.printf("%d games, %d bytes written to %s in %.2fs%n", games, bytes, args[1], elapsed);
+        } catch (Exception e) {
+            System.err.println("❌ Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+    
+    private static List<BatchJob> readJobs(Path file) throws IOException {
+        List<BatchJob> jobs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            try {
+                jobs.add(parseJob(jobs.size(), content.split("\\s+")));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + " line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no jobs");
+        }
+        return jobs;
+    }
+    
+    private static BatchJob parseJob(int index, String[] fields) {
+        if (fields.length < 6 || fields.length > 7) {
+            throw new IllegalArgumentException("expected size level generator boardSeed players games [diceSeed]");
+        }
+        BoardConfiguration config = new BoardConfigurationBuilder()
+            .withSize(Integer.parseInt(fields[0]))
+            .withLevel(GameLevel.valueOf(fields[1].toUpperCase(Locale.ROOT)))
+            .withGeneratorType(BoardGeneratorFactory.GeneratorType.valueOf(fields[2].toUpperCase(Locale.ROOT)))
+            .withSeed(Long.parseLong(fields[3]))
+            .build();
+        int players = Integer.parseInt(fields[4]);
+        long games = Long.parseLong(fields[5]);
+        long diceSeed = fields.length > 6 ? Long.parseLong(fields[6]) : index;
+        return new BatchJob(index, SimulationSpec.of(config, players, diceSeed, games));
+    }
+    
+    // Returns the number of bytes written
+    private static long run(List<BatchJob> jobs, Path output, int threads) throws IOException, InterruptedException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int maxInFlight = threads * CHUNKS_IN_FLIGHT_PER_THREAD;
+        Deque<Future<ByteBuffer>> inFlight = new ArrayDeque<>(maxInFlight);
+        
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long written = writeFully(channel, ByteBuffer.wrap(HEADER));
+            for (BatchJob job : jobs) {
+                long games = job.spec.getGameCount();
+                for (long from = 0; from < games; from += GAMES_PER_CHUNK) {
+                    // Oldest chunk goes out before a new one is queued
+                    if (inFlight.size() == maxInFlight) {
+                        written += writeFully(channel, await(inFlight.poll()));
+                    }
+                    long chunkFrom = from;
+                    long chunkTo = Math.min(games, from + GAMES_PER_CHUNK);
+                    inFlight.add(pool.submit(() -> job.playChunk(chunkFrom, chunkTo)));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                written += writeFully(channel, await(inFlight.poll()));
+            }
+            return written;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    private static ByteBuffer await(Future<ByteBuffer> chunk) throws IOException, InterruptedException {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Batch worker failed: " + cause.getMessage(), cause);
+        }
+    }
+    
+    private static long writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long count = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return count;
+    }
+    
+    /** One line of the job file; the board is generated by the first chunk that needs it. */
+    private static class BatchJob {
+        final int index;
+        final SimulationSpec spec;
+        final SimulationResult result;
+        private GameSimulator simulator;
+        
+        BatchJob(int index, SimulationSpec spec) {
+            this.index = index;
+            this.spec = spec;
+            this.result = new SimulationResult(spec.getPlayerCount());
+        }
+        
+        synchronized GameSimulator simulator() {
+            if (simulator == null) {
+                simulator = new GameSimulator(spec);
+            }
+            return simulator;
+        }
+        
+        ByteBuffer playChunk(long fromGame, long toGame) {
+            ByteBuffer rows = ByteBuffer.allocate((int) (toGame - fromGame) * MAX_ROW_BYTES);
+            SimulationResult chunk = simulator().run(fromGame, toGame, null,
+                (game, winningSeat, turns, extra, revoked) -> {
+                    putNumber(rows, index).put((byte) ',');
+                    putNumber(rows, game).put((byte) ',');
+                    putNumber(rows, winningSeat + 1).put((byte) ',');
+                    putNumber(rows, turns).put((byte) ',');
+                    putNumber(rows, extra).put((byte) ',');
+                    putNumber(rows, revoked).put((byte) '\n');
+                });
+            synchronized (result) {
+                result.merge(chunk);
+            }
+            return rows.flip();
+        }
+    }
+    
+    // ASCII decimal without going through a String; values are never negative
+    private static ByteBuffer putNumber(ByteBuffer buffer, long value) {
+        if (value < 10) {
+            return buffer.put((byte) ('0' + value));
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        return buffer.position(end);
+    }
+}
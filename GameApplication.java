@@ -4,10 +4,21 @@ import com.snakeladder.service.GameDisplay;
 import com.snakeladder.builder.BoardConfiguration;
 import com.snakeladder.builder.BoardConfigurationBuilder;
 import com.snakeladder.factory.BoardGeneratorFactory;
+import com.snakeladder.event.EventPipeline;
+import com.snakeladder.event.LoggingEventConsumer;
+import com.snakeladder.event.SleepingWaitStrategy;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class GameApplication {
+    // Optional file that gets one line per turn, e.g. -Dsnakeladder.eventLog=game.log
+    private static final String EVENT_LOG_PROPERTY = "snakeladder.eventLog";
+    
     private static final Scanner sc = new Scanner(System.in);
     private static final GameDisplay gameDisplay = new GameDisplay();
     
@@ -38,7 +49,12 @@ public class GameApplication {
             
             gameDisplay.displayGameEntities(game.getBoard());
             
-            playGame(game);
+            String eventLog = System.getProperty(EVENT_LOG_PROPERTY);
+            if (eventLog == null) {
+                playGame(game);
+            } else {
+                playGameWithEventLog(game, eventLog);
+            }
             
         } catch (Exception e) {
             System.err.println("❌ Error: " + e.getMessage());
@@ -156,6 +172,24 @@ public class GameApplication {
         }
     }
     
+    // The log is written off the game thread, so a slow disk never holds up
+    // play; the ring may drop lines under pressure, which only the log sees
+    private static void playGameWithEventLog(Game game, String path) throws IOException {
+        long dropped;
+        // The pipeline drains into the log before the log is closed
+        try (Writer log = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            try (EventPipeline pipeline = new EventPipeline()) {
+                pipeline.addConsumer("log", new LoggingEventConsumer(log), new SleepingWaitStrategy()).start();
+                game.addListener(pipeline);
+                playGame(game);
+                dropped = pipeline.getDroppedEvents();
+            }
+        }
+        if (dropped > 0) {
+            System.out.println("⚠️ Event log skipped " + dropped + " turns");
+        }
+    }
+    
     private static void playGame(Game game) {
         System.out.println("\n🎲 Let's start the game! Press Enter to roll the dice, or 'q' to quit.");
         
@@ -211,10 +245,11 @@ public class GameApplication {
         System.out.println("\n🎨 Choose board generation style:");
         System.out.println("1. Random - Unpredictable placement");
         System.out.println("2. Balanced - Even distribution across board");
+        System.out.println("3. Optimized - Tuned for game length and fair seats");
         
         while (true) {
             try {
-                System.out.print("Enter choice [1-2]: ");
+                System.out.print("Enter choice [1-3]: ");
                 int choice = Integer.parseInt(sc.nextLine().trim());
                 
                 switch (choice) {
@@ -222,8 +257,10 @@ public class GameApplication {
                         return BoardGeneratorFactory.GeneratorType.RANDOM;
                     case 2:
                         return BoardGeneratorFactory.GeneratorType.BALANCED;
+                    case 3:
+                        return BoardGeneratorFactory.GeneratorType.OPTIMIZED;
                     default:
-                        System.out.println("❌ Please enter 1 or 2!");
+                        System.out.println("❌ Please enter 1, 2 or 3!");
                 }
             } catch (NumberFormatException e) {
                 System.out.println("❌ Please enter a valid number!");
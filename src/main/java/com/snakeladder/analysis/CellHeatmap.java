@@ -0,0 +1,118 @@
+package com.snakeladder.analysis;
+
+import com.snakeladder.service.Game;
+import com.snakeladder.service.GameListener;
+
+/**
+ * Per-cell counts from played turns: how often each cell is landed on by a
+ * roll, how often the snake or ladder starting there fires, and how many
+ * kills happen there. A heatmap is plain arrays and is not thread-safe;
+ * bulk collection gives each task its own and merges them afterwards.
+ */
+public class CellHeatmap implements GameListener {
+    private static final int HEADER_LENGTH = 3;
+    
+    private final int totalCells;
+    private final long[] landings;
+    private final long[] transforms;
+    private final long[] kills;
+    private long games;
+    private long moves;
+    
+    public CellHeatmap(int totalCells) {
+        this.totalCells = totalCells;
+        this.landings = new long[totalCells + 1];
+        this.transforms = new long[totalCells + 1];
+        this.kills = new long[totalCells + 1];
+    }
+    
+    @Override
+    public void onTurn(Game game, Game.GameResult result) {
+        record(result);
+    }
+    
+    public void record(Game.GameResult result) {
+        int landing = result.getLandingPosition();
+        if (landing == Game.NO_CELL) {
+            return;
+        }
+        moves++;
+        landings[landing]++;
+        if (result.getFinalPosition() != landing) {
+            transforms[landing]++;
+        }
+        if (result.hasKilled()) {
+            kills[landing]++;
+        }
+    }
+    
+    public void recordGames(long count) {
+        games += count;
+    }
+    
+    public void merge(CellHeatmap other) {
+        if (other.totalCells != totalCells) {
+            throw new IllegalArgumentException("Cannot merge heatmaps for " + other.totalCells
+                + " and " + totalCells + " cells");
+        }
+        for (int cell = 0; cell <= totalCells; cell++) {
+            landings[cell] += other.landings[cell];
+            transforms[cell] += other.transforms[cell];
+            kills[cell] += other.kills[cell];
+        }
+        games += other.games;
+        moves += other.moves;
+    }
+    
+    public int getTotalCells() { return totalCells; }
+    public long getGames() { return games; }
+    public long getMoves() { return moves; }
+    public long getLandings(int cell) { return landings[cell]; }
+    public long getTransforms(int cell) { return transforms[cell]; }
+    public long getKills(int cell) { return kills[cell]; }
+    
+    // Fraction of all moves that ended their roll on the cell
+    public double getLandingShare(int cell) {
+        return moves == 0 ? 0 : (double) landings[cell] / moves;
+    }
+    
+    public double getTransformsPerGame(int cell) {
+        return games == 0 ? 0 : (double) transforms[cell] / games;
+    }
+    
+    public long getMaxLandings() {
+        long max = 0;
+        for (int cell = 1; cell <= totalCells; cell++) {
+            max = Math.max(max, landings[cell]);
+        }
+        return max;
+    }
+    
+    // Layout: totalCells, games, moves, then landings, transforms and kills
+    // for cells 0..totalCells
+    public long[] toArray() {
+        int cells = totalCells + 1;
+        long[] array = new long[HEADER_LENGTH + 3 * cells];
+        array[0] = totalCells;
+        array[1] = games;
+        array[2] = moves;
+        System.arraycopy(landings, 0, array, HEADER_LENGTH, cells);
+        System.arraycopy(transforms, 0, array, HEADER_LENGTH + cells, cells);
+        System.arraycopy(kills, 0, array, HEADER_LENGTH + 2 * cells, cells);
+        return array;
+    }
+    
+    public static CellHeatmap fromArray(long[] array) {
+        if (array.length < HEADER_LENGTH || array.length != HEADER_LENGTH + 3 * (array[0] + 1)) {
+            throw new IllegalArgumentException("Not a heatmap array of length " + array.length);
+        }
+        CellHeatmap heatmap = new CellHeatmap((int) array[0]);
+        int cells = heatmap.totalCells + 1;
+        heatmap.games = array[1];
+        heatmap.moves = array[2];
+        System.arraycopy(array, HEADER_LENGTH, heatmap.landings, 0, cells);
+        System.arraycopy(array, HEADER_LENGTH + cells, heatmap.transforms, 0, cells);
+        System.arraycopy(array, HEADER_LENGTH + 2 * cells, heatmap.kills, 0, cells);
+        return heatmap;
+    }
+}
@@ -0,0 +1,514 @@
+package com.snakeladder.analysis;
+
+import com.snakeladder.model.*;
+import com.snakeladder.service.Game;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A board layout that designers edit one snake or ladder at a time. After
+ * each edit only the turn outcomes that can reach a changed cell are
+ * rebuilt, and the expected number of turns for a single player to finish
+ * (kills ignored, as in TurnDistributionTable) is re-solved starting from
+ * the previous answer. Exact seat advantages are solved on demand, also
+ * warm-started from the last solution for the same player count.
+ */
+public class EditableBoard {
+    public static final double TOLERANCE = 1e-12;
+    public static final int MAX_SWEEPS = 1_000_000;
+    private static final int MAX_PLAYERS = 4;
+    private static final double STUCK_EPSILON = 1e-12;
+    private static final double FINISH_EPSILON = 1e-7;
+    
+    private final int size;
+    private final int totalCells;
+    private final boolean chainTransforms;
+    private final DieModel die;
+    private final SeatAdvantageSolver solver;
+    private TreeMap<Integer, BoardEntity> entities = new TreeMap<>();
+    private Board board;
+    private Chain chain;
+    
+    // State before the last edit, for a single level of undo
+    private TreeMap<Integer, BoardEntity> previousEntities;
+    private Board previousBoard;
+    private Chain previousChain;
+    private final SeatAdvantageSolver.SeatAdvantage[] seatAdvantages =
+        new SeatAdvantageSolver.SeatAdvantage[MAX_PLAYERS + 1];
+    private final Board[] seatAdvantageBoards = new Board[MAX_PLAYERS + 1];
+    
+    public EditableBoard(Board board) {
+        this(board, DieModel.STANDARD);
+    }
+    
+    public EditableBoard(Board board, DieModel die) {
+        this(board.getSize(), board.getAllEntities(), board.isChainTransforms(), die);
+    }
+    
+    public EditableBoard(int size, List<BoardEntity> entities, boolean chainTransforms, DieModel die) {
+        this.size = size;
+        this.totalCells = size * size;
+        this.chainTransforms = chainTransforms;
+        this.die = die;
+        this.solver = new SeatAdvantageSolver(die);
+        for (BoardEntity entity : entities) {
+            checkPlacement(entity, this.entities);
+            this.entities.put(entity.getStartPosition(), entity);
+        }
+        this.board = buildBoard(this.entities);
+        this.chain = new Chain(board);
+    }
+    
+    public void addEntity(BoardEntity entity) {
+        TreeMap<Integer, BoardEntity> edited = new TreeMap<>(entities);
+        checkPlacement(entity, edited);
+        edited.put(entity.getStartPosition(), entity);
+        apply(edited);
+    }
+    
+    public BoardEntity removeEntity(int startPosition) {
+        TreeMap<Integer, BoardEntity> edited = new TreeMap<>(entities);
+        BoardEntity removed = edited.remove(startPosition);
+        if (removed == null) {
+            throw new IllegalArgumentException("No snake or ladder starts at " + startPosition);
+        }
+        apply(edited);
+        return removed;
+    }
+    
+    // Keeps the entity's type; returns the entity that was replaced
+    public BoardEntity moveEntity(int startPosition, int newStart, int newEnd) {
+        TreeMap<Integer, BoardEntity> edited = new TreeMap<>(entities);
+        BoardEntity moved = edited.remove(startPosition);
+        if (moved == null) {
+            throw new IllegalArgumentException("No snake or ladder starts at " + startPosition);
+        }
+        BoardEntity replacement = BoardEntity.of(moved.getTypeCode(), newStart, newEnd);
+        checkPlacement(replacement, edited);
+        edited.put(newStart, replacement);
+        apply(edited);
+        return moved;
+    }
+    
+    // Builds the new board first, so an edit that fails (e.g. a chained
+    // cycle) leaves the layout and its solution untouched
+    private void apply(TreeMap<Integer, BoardEntity> edited) {
+        Board editedBoard = buildBoard(edited);
+        Chain editedChain = chain.edit(editedBoard);
+        previousEntities = entities;
+        previousBoard = board;
+        previousChain = chain;
+        chain = editedChain;
+        entities = edited;
+        board = editedBoard;
+    }
+    
+    // Reverts the last edit without re-solving anything
+    public void undo() {
+        if (previousChain == null) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        entities = previousEntities;
+        board = previousBoard;
+        chain = previousChain;
+        previousEntities = null;
+        previousBoard = null;
+        previousChain = null;
+    }
+    
+    private void checkPlacement(BoardEntity entity, Map<Integer, BoardEntity> placed) {
+        int start = entity.getStartPosition();
+        int end = entity.getEndPosition();
+        int type = entity.getTypeCode();
+        if (type == BoardEntity.BOOSTER || type == BoardEntity.LOSE_TURN) {
+            throw new IllegalArgumentException("Only snakes, ladders and portals can be analysed, not a "
+                + BoardEntity.typeName(type));
+        }
+        if (start < 1 || start >= totalCells) {
+            throw new IllegalArgumentException("Start " + start + " must be between 1 and " + (totalCells - 1));
+        }
+        if (end < 0 || end > totalCells) {
+            throw new IllegalArgumentException("End " + end + " is off the board");
+        }
+        if (placed.containsKey(start)) {
+            throw new IllegalArgumentException("Cell " + start + " already has " + placed.get(start));
+        }
+    }
+    
+    private Board buildBoard(Map<Integer, BoardEntity> layout) {
+        return new Board(size, new ArrayList<>(layout.values()), chainTransforms);
+    }
+    
+    // A fresh Board per edit, so it can be played or cached like any other
+    public Board toBoard() {
+        return board;
+    }
+    
+    public List<BoardEntity> getEntities() {
+        return new ArrayList<>(entities.values());
+    }
+    
+    public DieModel getDie() {
+        return die;
+    }
+    
+    public double getExpectedTurns() {
+        return chain.expected[0];
+    }
+    
+    public double getExpectedTurns(int cell) {
+        return cell >= totalCells ? 0 : chain.expected[cell];
+    }
+    
+    public int getLastSweeps() {
+        return chain.sweeps;
+    }
+    
+    public int getLastRebuiltCells() {
+        return chain.rebuiltCells;
+    }
+    
+    public int getTotalCells() {
+        return totalCells;
+    }
+    
+    /**
+     * Distribution of the turn on which a single player starting at cell 0
+     * first finishes: element t is the probability of finishing on turn
+     * t + 1. Cut off once less than 1e-7 of the mass is still on the board.
+     */
+    public double[] getFinishDistribution() {
+        double[] mass = new double[totalCells];
+        double[] next = new double[totalCells];
+        mass[0] = 1.0;
+        double remaining = 1.0;
+        double[] finish = new double[64];
+        int turns = 0;
+        while (remaining > FINISH_EPSILON && turns < TurnDistributionTable.MAX_HORIZON) {
+            Arrays.fill(next, 0);
+            double finished = 0;
+            for (int cell = 0; cell < totalCells; cell++) {
+                double p = mass[cell];
+                if (p == 0) {
+                    continue;
+                }
+                finished += p * chain.winProbability[cell];
+                int[] ends = chain.endCells[cell];
+                double[] probabilities = chain.endProbabilities[cell];
+                for (int i = 0; i < ends.length; i++) {
+                    next[ends[i]] += p * probabilities[i];
+                }
+            }
+            if (turns == finish.length) {
+                finish = Arrays.copyOf(finish, turns * 2);
+            }
+            finish[turns++] = finished;
+            remaining -= finished;
+            double[] swap = mass;
+            mass = next;
+            next = swap;
+        }
+        return Arrays.copyOf(finish, turns);
+    }
+    
+    /**
+     * Fast per-seat win rates from the finish distribution alone, treating
+     * the players as independent (kills ignored). Seat i wins on round t if
+     * it finishes then, the seats before it have not finished by round t
+     * and the seats after it have not finished by round t - 1.
+     */
+    public double[] estimateSeatWinRates(int playerCount) {
+        double[] finish = getFinishDistribution();
+        double[] wins = new double[playerCount];
+        double survivedBefore = 1.0;
+        double total = 0;
+        for (int t = 0; t < finish.length; t++) {
+            double survivedNow = survivedBefore - finish[t];
+            for (int seat = 0; seat < playerCount; seat++) {
+                double p = finish[t] * Math.pow(survivedNow, seat) * Math.pow(survivedBefore, playerCount - 1 - seat);
+                wins[seat] += p;
+                total += p;
+            }
+            survivedBefore = survivedNow;
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            wins[seat] = total > 0 ? wins[seat] / total : 0;
+        }
+        return wins;
+    }
+    
+    public SeatAdvantageSolver.SeatAdvantage getSeatAdvantage(int playerCount) {
+        if (playerCount < 2 || playerCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Exact analysis supports 2 to 4 players, got " + playerCount);
+        }
+        if (seatAdvantageBoards[playerCount] != board) {
+            seatAdvantages[playerCount] = solver.solve(board, playerCount, seatAdvantages[playerCount]);
+            seatAdvantageBoards[playerCount] = board;
+        }
+        return seatAdvantages[playerCount];
+    }
+    
+    /**
+     * How much each entity changes the expected turns to finish: every
+     * entity is removed in turn, in parallel, and the edited board is
+     * solved from the current solution. Sorted by the size of the effect.
+     */
+    public List<EntitySensitivity> getSensitivityReport() {
+        List<BoardEntity> current = getEntities();
+        TreeMap<Integer, BoardEntity> layout = entities;
+        Chain base = chain;
+        return IntStream.range(0, current.size()).parallel()
+            .mapToObj(i -> {
+                BoardEntity entity = current.get(i);
+                TreeMap<Integer, BoardEntity> without = new TreeMap<>(layout);
+                without.remove(entity.getStartPosition());
+                double expectedWithout = base.edit(buildBoard(without)).expected[0];
+                return new EntitySensitivity(entity, base.expected[0] - expectedWithout);
+            })
+            .sorted(Comparator.comparingDouble((EntitySensitivity s) -> -Math.abs(s.getTurnDelta())))
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Turn outcomes and expected turns for one board. Outcome rows are never
+     * modified once built, so an edited chain shares every row it did not
+     * have to rebuild with the chain it came from.
+     */
+    private class Chain {
+        final int[] destination;
+        final double[] winProbability;
+        final int[][] endCells;
+        final double[][] endProbabilities;
+        final double[] expected;
+        int sweeps;
+        int rebuiltCells;
+        
+        Chain(Board board) {
+            this.destination = destinations(board);
+            this.winProbability = new double[totalCells];
+            this.endCells = new int[totalCells][];
+            this.endProbabilities = new double[totalCells][];
+            this.expected = new double[totalCells];
+            RowBuilder rows = new RowBuilder();
+            for (int cell = 0; cell < totalCells; cell++) {
+                rows.build(this, cell);
+            }
+            this.rebuiltCells = totalCells;
+            solve();
+        }
+        
+        private Chain(Chain previous, int[] destination) {
+            this.destination = destination;
+            this.winProbability = previous.winProbability.clone();
+            this.endCells = previous.endCells.clone();
+            this.endProbabilities = previous.endProbabilities.clone();
+            this.expected = previous.expected.clone();
+        }
+        
+        Chain edit(Board edited) {
+            int[] editedDestination = destinations(edited);
+            Chain next = new Chain(this, editedDestination);
+            boolean[] changed = new boolean[totalCells + 1];
+            boolean any = false;
+            for (int cell = 0; cell <= totalCells; cell++) {
+                if (destination[cell] != editedDestination[cell]) {
+                    changed[cell] = true;
+                    any = true;
+                }
+            }
+            if (any) {
+                boolean[] dirty = next.startsReaching(changed);
+                RowBuilder rows = new RowBuilder();
+                for (int cell = 0; cell < totalCells; cell++) {
+                    if (dirty[cell]) {
+                        rows.build(next, cell);
+                        next.rebuiltCells++;
+                    }
+                }
+            }
+            next.solve();
+            return next;
+        }
+        
+        private int[] destinations(Board board) {
+            int[] result = new int[totalCells + 1];
+            for (int cell = 0; cell <= totalCells; cell++) {
+                result[cell] = board.transformPosition(cell);
+            }
+            return result;
+        }
+        
+        // Start cells whose turn can land on a changed cell, found backwards
+        // one roll at a time: reach[s] holds the cells that, entered with s
+        // bonus rolls already made this turn, can still land on a changed cell
+        private boolean[] startsReaching(boolean[] changed) {
+            int limit = Game.CONSECUTIVE_SIX_LIMIT;
+            int min = die.getMinRoll();
+            int max = die.getMaxRoll();
+            
+            // Cells grouped by where they lead, to invert the destination table
+            int[] head = new int[totalCells + 1];
+            int[] nextWithSameTarget = new int[totalCells + 1];
+            Arrays.fill(head, -1);
+            for (int cell = totalCells; cell >= 1; cell--) {
+                nextWithSameTarget[cell] = head[destination[cell]];
+                head[destination[cell]] = cell;
+            }
+            
+            boolean[] reach = new boolean[totalCells];
+            for (int streak = limit - 1; streak >= 0; streak--) {
+                boolean[] level = new boolean[totalCells];
+                for (int landing = 1; landing <= totalCells; landing++) {
+                    if (!changed[landing]) {
+                        continue;
+                    }
+                    for (int value = min; value <= max && value <= landing; value++) {
+                        if (die.getProbability(value) > 0 && landing - value < totalCells) {
+                            level[landing - value] = true;
+                        }
+                    }
+                }
+                if (streak < limit - 1) {
+                    for (int value = min; value <= max; value++) {
+                        if (!die.isBonus(value) || die.getProbability(value) == 0) {
+                            continue;
+                        }
+                        for (int target = 0; target < totalCells; target++) {
+                            if (!reach[target]) {
+                                continue;
+                            }
+                            // An overshooting bonus roll stays put and rolls again
+                            if (target + value > totalCells) {
+                                level[target] = true;
+                            }
+                            for (int landing = head[target]; landing != -1; landing = nextWithSameTarget[landing]) {
+                                if (landing - value >= 0 && landing - value < totalCells) {
+                                    level[landing - value] = true;
+                                }
+                            }
+                        }
+                    }
+                }
+                reach = level;
+            }
+            return reach;
+        }
+        
+        // Gauss-Seidel from the cells nearest the finish down, with each
+        // cell's chance of staying put folded in so overshoots cost nothing.
+        // Infinite when some reachable cell can never finish, e.g. with dice
+        // that cannot roll a 1
+        private void solve() {
+            sweeps = 0;
+            double delta;
+            do {
+                delta = 0;
+                for (int cell = totalCells - 1; cell >= 0; cell--) {
+                    int[] ends = endCells[cell];
+                    double[] probabilities = endProbabilities[cell];
+                    double stay = 0;
+                    double sum = 1;
+                    for (int i = 0; i < ends.length; i++) {
+                        if (ends[i] == cell) {
+                            stay += probabilities[i];
+                        } else {
+                            sum += probabilities[i] * expected[ends[i]];
+                        }
+                    }
+                    // A cell every roll overshoots can never finish
+                    double value = stay > 1 - STUCK_EPSILON ? Double.POSITIVE_INFINITY : sum / (1 - stay);
+                    if (value != expected[cell]) {
+                        delta = Math.max(delta, Math.abs(value - expected[cell]) / Math.max(1, value));
+                    }
+                    expected[cell] = value;
+                }
+                sweeps++;
+            } while (delta > TOLERANCE && sweeps < MAX_SWEEPS);
+            if (delta > TOLERANCE) {
+                throw new IllegalStateException("Expected turns did not converge; the finish may be unreachable");
+            }
+        }
+    }
+    
+    // Per-thread scratch for rebuilding outcome rows
+    private class RowBuilder {
+        final double[] scratch = new double[totalCells + 1];
+        final int[] touched = new int[totalCells + 1];
+        int touchedCount;
+        
+        // Mirrors Game.playTurn: overshooting rolls stay put, a bonus roll goes
+        // again until the consecutive-bonus limit ends the turn
+        void build(Chain chain, int cell) {
+            touchedCount = 0;
+            roll(chain.destination, cell, 0, 1.0);
+            chain.winProbability[cell] = scratch[totalCells];
+            scratch[totalCells] = 0;
+            
+            int count = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                if (touched[i] < totalCells) count++;
+            }
+            int[] ends = new int[count];
+            double[] probabilities = new double[count];
+            int j = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int end = touched[i];
+                if (end < totalCells) {
+                    ends[j] = end;
+                    probabilities[j++] = scratch[end];
+                    scratch[end] = 0;
+                }
+            }
+            chain.endCells[cell] = ends;
+            chain.endProbabilities[cell] = probabilities;
+        }
+        
+        private void roll(int[] destination, int cell, int streak, double probability) {
+            for (int value = die.getMinRoll(); value <= die.getMaxRoll(); value++) {
+                double p = probability * die.getProbability(value);
+                if (p == 0) {
+                    continue;
+                }
+                int next = cell + value;
+                next = next > totalCells ? cell : destination[next];
+                if (next >= totalCells) {
+                    add(totalCells, p);
+                } else if (die.isBonus(value) && streak + 1 < Game.CONSECUTIVE_SIX_LIMIT) {
+                    roll(destination, next, streak + 1, p);
+                } else {
+                    add(next, p);
+                }
+            }
+        }
+        
+        private void add(int end, double p) {
+            if (scratch[end] == 0) {
+                touched[touchedCount++] = end;
+            }
+            scratch[end] += p;
+        }
+    }
+    
+    public static class EntitySensitivity {
+        private final BoardEntity entity;
+        private final double turnDelta;
+        
+        EntitySensitivity(BoardEntity entity, double turnDelta) {
+            this.entity = entity;
+            this.turnDelta = turnDelta;
+        }
+        
+        public BoardEntity getEntity() { return entity; }
+        
+        // Expected turns with the entity minus without it: positive for
+        // entities that lengthen the game
+        public double getTurnDelta() { return turnDelta; }
+        
+        @Override
+        public String toString() {
+            return String.format("%s %d -> %d: %+.3f turns", BoardEntity.typeName(entity.getTypeCode()),
+                entity.getStartPosition(), entity.getEndPosition(), turnDelta);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.snakeladder.analysis;
+
+import com.snakeladder.model.Board;
+import com.snakeladder.model.DieModel;
+import com.snakeladder.service.Game;
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Exact per-seat win probabilities for 2 to 4 players, including the kill
+ * rule. Solves the joint Markov chain over (positions, turn owner, bonus
+ * streak) by parallel value iteration. Positions only range over cells a
+ * player can actually rest on, which keeps the state space compact.
+ */
+public class SeatAdvantageSolver {
+    private static final int MIN_PLAYERS = 2;
+    private static final int MAX_PLAYERS = 4;
+    private static final int WIN = -1;
+    private static final int CHUNK_SIZE = 4096;
+    public static final long DEFAULT_MAX_STATES = 4_000_000;
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+    public static final int DEFAULT_MAX_ITERATIONS = 100_000;
+    
+    private final DieModel die;
+    private final int[] rolls;            // outcome -> total rolled, impossible totals left out
+    private final double[] rollProbability;
+    private final long maxStates;
+    private final double tolerance;
+    private final int maxIterations;
+    private final Map<Board, SeatAdvantage[]> cache = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    public SeatAdvantageSolver() {
+        this(DieModel.STANDARD);
+    }
+    
+    public SeatAdvantageSolver(DieModel die) {
+        this(die, DEFAULT_MAX_STATES, DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+    
+    public SeatAdvantageSolver(long maxStates, double tolerance, int maxIterations) {
+        this(DieModel.STANDARD, maxStates, tolerance, maxIterations);
+    }
+    
+    public SeatAdvantageSolver(DieModel die, long maxStates, double tolerance, int maxIterations) {
+        this.die = die;
+        int outcomes = 0;
+        for (int value = die.getMinRoll(); value <= die.getMaxRoll(); value++) {
+            if (die.getProbability(value) > 0) outcomes++;
+        }
+        this.rolls = new int[outcomes];
+        this.rollProbability = new double[outcomes];
+        int i = 0;
+        for (int value = die.getMinRoll(); value <= die.getMaxRoll(); value++) {
+            if (die.getProbability(value) > 0) {
+                rolls[i] = value;
+                rollProbability[i++] = die.getProbability(value);
+            }
+        }
+        this.maxStates = maxStates;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+    
+    public SeatAdvantage solve(Board board, int playerCount) {
+        return solve(board, playerCount, null);
+    }
+    
+    /**
+     * Solves starting from another board's solution, typically the same
+     * board before a small edit. States whose cells all exist in the old
+     * solution start from its values, which usually cuts the iterations
+     * to a fraction of a cold solve; the answer is the same either way.
+     */
+    public SeatAdvantage solve(Board board, int playerCount, SeatAdvantage warmStart) {
+        if (playerCount < MIN_PLAYERS || playerCount > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Exact analysis supports 2 to 4 players, got " + playerCount);
+        }
+        
+        SeatAdvantage[] solved = cache.computeIfAbsent(board, b -> new SeatAdvantage[MAX_PLAYERS + 1]);
+        synchronized (solved) {
+            if (solved[playerCount] == null) {
+                StateSpace space = new StateSpace(board, playerCount);
+                solved[playerCount] = space.iterate(space.initialValues(warmStart));
+            }
+            return solved[playerCount];
+        }
+    }
+    
+    private class StateSpace {
+        final int players;
+        final int totalCells;
+        final int restingCount;
+        final int[] restingCells;     // resting index -> cell
+        final int[] restingIndex;     // cell -> resting index, or -1
+        final int[] landingCell;      // [resting * outcomes + outcome] -> cell landed on before transform, or -1
+        final int[] finalResting;     // [resting * outcomes + outcome] -> resting index after transform, or WIN
+        final int[] strides;          // seat -> weight of its position in the packed key
+        final int stateCount;
+        
+        StateSpace(Board board, int players) {
+            if (board.hasTurnEffects()) {
+                throw new IllegalArgumentException("Boosters and lose-a-turn cells are not modelled");
+            }
+            this.players = players;
+            this.totalCells = board.getTotalCells();
+            
+            int[] destination = new int[totalCells + 1];
+            boolean[] resting = new boolean[totalCells];
+            resting[0] = true;
+            for (int cell = 0; cell <= totalCells; cell++) {
+                destination[cell] = board.transformPosition(cell);
+                if (cell > 0 && destination[cell] < totalCells) {
+                    resting[destination[cell]] = true;
+                }
+            }
+            
+            restingIndex = new int[totalCells];
+            Arrays.fill(restingIndex, -1);
+            int count = 0;
+            for (int cell = 0; cell < totalCells; cell++) {
+                if (resting[cell]) restingIndex[cell] = count++;
+            }
+            restingCount = count;
+            restingCells = new int[count];
+            for (int cell = 0; cell < totalCells; cell++) {
+                if (resting[cell]) restingCells[restingIndex[cell]] = cell;
+            }
+            
+            landingCell = new int[count * rolls.length];
+            finalResting = new int[count * rolls.length];
+            for (int r = 0; r < count; r++) {
+                int cell = restingCells[r];
+                for (int outcome = 0; outcome < rolls.length; outcome++) {
+                    int slot = r * rolls.length + outcome;
+                    int next = cell + rolls[outcome];
+                    if (next > totalCells) {
+                        landingCell[slot] = -1;
+                        finalResting[slot] = r;
+                    } else {
+                        landingCell[slot] = next;
+                        int end = destination[next];
+                        finalResting[slot] = end >= totalCells ? WIN : restingIndex[end];
+                    }
+                }
+            }
+            
+            long states = (long) Math.pow(restingCount, players) * players * Game.CONSECUTIVE_SIX_LIMIT;
+            if (states > maxStates || states * players > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format(
+                    "State space too large for exact analysis: %d states (limit %d)", states, maxStates));
+            }
+            this.stateCount = (int) states;
+            
+            strides = new int[players];
+            int stride = 1;
+            for (int seat = players - 1; seat >= 0; seat--) {
+                strides[seat] = stride;
+                stride *= restingCount;
+            }
+        }
+        
+        double[] initialValues(SeatAdvantage warmStart) {
+            double[] values = new double[stateCount * players];
+            if (warmStart == null || warmStart.space.players != players) {
+                return values;
+            }
+            StateSpace old = warmStart.space;
+            int[] cells = new int[players];
+            int[] oldResting = new int[players];
+            int positionKeys = stateCount / players / Game.CONSECUTIVE_SIX_LIMIT;
+            for (int positionKey = 0; positionKey < positionKeys; positionKey++) {
+                decodePositions(positionKey, cells);
+                boolean mapped = true;
+                for (int seat = 0; seat < players && mapped; seat++) {
+                    int cell = restingCells[cells[seat]];
+                    oldResting[seat] = cell < old.totalCells ? old.restingIndex[cell] : -1;
+                    mapped = oldResting[seat] >= 0;
+                }
+                if (!mapped) {
+                    continue;
+                }
+                for (int owner = 0; owner < players; owner++) {
+                    for (int streak = 0; streak < Game.CONSECUTIVE_SIX_LIMIT; streak++) {
+                        int from = (int) old.encode(oldResting, owner, streak) * players;
+                        int to = (int) encode(cells, owner, streak) * players;
+                        System.arraycopy(warmStart.values, from, values, to, players);
+                    }
+                }
+            }
+            return values;
+        }
+        
+        SeatAdvantage iterate(double[] initial) {
+            double[] current = initial;
+            double[] next = new double[stateCount * players];
+            int chunks = (stateCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            
+            int iterations = 0;
+            double delta = Double.MAX_VALUE;
+            while (delta > tolerance && iterations < maxIterations) {
+                final double[] from = current;
+                final double[] to = next;
+                delta = IntStream.range(0, chunks).parallel()
+                    .mapToDouble(chunk -> sweep(from, to, chunk * CHUNK_SIZE,
+                        Math.min(stateCount, (chunk + 1) * CHUNK_SIZE)))
+                    .max()
+                    .orElse(0);
+                current = to;
+                next = from;
+                iterations++;
+            }
+            return new SeatAdvantage(this, current, iterations, delta);
+        }
+        
+        // One Jacobi sweep over [start, end); returns the largest value change
+        private double sweep(double[] from, double[] to, int start, int end) {
+            int[] cells = new int[players];
+            double[] sum = new double[players];
+            double maxDelta = 0;
+            
+            for (int state = start; state < end; state++) {
+                int streak = state % Game.CONSECUTIVE_SIX_LIMIT;
+                int owner = (state / Game.CONSECUTIVE_SIX_LIMIT) % players;
+                int positionKey = state / Game.CONSECUTIVE_SIX_LIMIT / players;
+                decodePositions(positionKey, cells);
+                Arrays.fill(sum, 0);
+                
+                int nextOwner = (owner + 1) % players;
+                for (int outcome = 0; outcome < rolls.length; outcome++) {
+                    int slot = cells[owner] * rolls.length + outcome;
+                    double p = rollProbability[outcome];
+                    int moved = finalResting[slot];
+                    if (moved == WIN) {
+                        sum[owner] += p;
+                        continue;
+                    }
+                    
+                    // Adjust the packed key in place instead of re-encoding every successor
+                    int key = positionKey + (moved - cells[owner]) * strides[owner];
+                    int landing = landingCell[slot];
+                    if (landing >= 0) {
+                        for (int seat = 0; seat < players; seat++) {
+                            if (seat != owner && restingCells[cells[seat]] == landing) {
+                                key -= cells[seat] * strides[seat];
+                                break;
+                            }
+                        }
+                    }
+                    
+                    int successor;
+                    if (die.isBonus(rolls[outcome]) && streak + 1 < Game.CONSECUTIVE_SIX_LIMIT) {
+                        successor = (key * players + owner) * Game.CONSECUTIVE_SIX_LIMIT + streak + 1;
+                    } else {
+                        successor = (key * players + nextOwner) * Game.CONSECUTIVE_SIX_LIMIT;
+                    }
+                    
+                    int base = successor * players;
+                    for (int seat = 0; seat < players; seat++) {
+                        sum[seat] += p * from[base + seat];
+                    }
+                }
+                
+                int base = state * players;
+                for (int seat = 0; seat < players; seat++) {
+                    double value = sum[seat];
+                    maxDelta = Math.max(maxDelta, Math.abs(value - from[base + seat]));
+                    to[base + seat] = value;
+                }
+            }
+            return maxDelta;
+        }
+        
+        // Mixed-radix packing: positions (seat 0 most significant), then owner, then streak
+        long encode(int[] resting, int owner, int streak) {
+            long key = 0;
+            for (int seat = 0; seat < players; seat++) {
+                key = key * restingCount + resting[seat];
+            }
+            return (key * players + owner) * Game.CONSECUTIVE_SIX_LIMIT + streak;
+        }
+        
+        void decodePositions(long key, int[] resting) {
+            for (int seat = players - 1; seat >= 0; seat--) {
+                resting[seat] = (int) (key % restingCount);
+                key /= restingCount;
+            }
+        }
+    }
+    
+    public static class SeatAdvantage {
+        private final StateSpace space;
+        private final double[] values;
+        private final int iterations;
+        private final double residual;
+        
+        private SeatAdvantage(StateSpace space, double[] values, int iterations, double residual) {
+            this.space = space;
+            this.values = values;
+            this.iterations = iterations;
+            this.residual = residual;
+        }
+        
+        public int getPlayerCount() { return space.players; }
+        public int getStateCount() { return space.stateCount; }
+        public int getIterations() { return iterations; }
+        public double getResidual() { return residual; }
+        
+        public double[] getWinProbabilities() {
+            return getWinProbabilities(new int[space.players], 0, 0);
+        }
+        
+        public double[] getWinProbabilities(int[] positions, int owner, int streak) {
+            if (positions.length != space.players) {
+                throw new IllegalArgumentException("Expected " + space.players + " positions");
+            }
+            int[] resting = new int[space.players];
+            for (int seat = 0; seat < space.players; seat++) {
+                int cell = positions[seat];
+                if (cell < 0 || cell >= space.totalCells || space.restingIndex[cell] < 0) {
+                    throw new IllegalArgumentException("Not a resting cell: " + cell);
+                }
+                resting[seat] = space.restingIndex[cell];
+            }
+            int base = (int) space.encode(resting, owner, streak) * space.players;
+            return Arrays.copyOfRange(values, base, base + space.players);
+        }
+        
+        public double getSeatSpread() {
+            double[] wins = getWinProbabilities();
+            double min = 1.0;
+            double max = 0.0;
+            for (double win : wins) {
+                min = Math.min(min, win);
+                max = Math.max(max, win);
+            }
+            return max - min;
+        }
+    }
+}
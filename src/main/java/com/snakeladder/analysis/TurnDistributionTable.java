@@ -0,0 +1,194 @@
+package com.snakeladder.analysis;
+
+import com.snakeladder.model.Board;
+import com.snakeladder.model.DieModel;
+import com.snakeladder.service.Game;
+import java.util.*;
+
+/**
+ * Per-board table of turns-to-finish distributions for a single player.
+ * A "turn" is everything a player does before the seat passes on, so extra
+ * rolls for bonus values are folded into it. Kills between players are
+ * ignored.
+ */
+public class TurnDistributionTable {
+    private static final double EPSILON = 1e-9;
+    public static final int MAX_HORIZON = 4096;
+    
+    private final int totalCells;
+    private final DieModel die;
+    private final int horizon;
+    // finish[streak][cell * horizon + (turn - 1)] = P(first finish on that turn)
+    private final double[][] finish;
+    
+    public TurnDistributionTable(Board board) {
+        this(board, DieModel.STANDARD);
+    }
+    
+    public TurnDistributionTable(Board board, DieModel die) {
+        if (board.hasTurnEffects()) {
+            throw new IllegalArgumentException("Boosters and lose-a-turn cells are not modelled");
+        }
+        this.totalCells = board.getTotalCells();
+        this.die = die;
+        
+        int[] destination = new int[totalCells + 1];
+        for (int cell = 0; cell <= totalCells; cell++) {
+            destination[cell] = board.transformPosition(cell);
+        }
+        
+        TurnOutcomes[] outcomes = new TurnOutcomes[Game.CONSECUTIVE_SIX_LIMIT];
+        for (int streak = 0; streak < Game.CONSECUTIVE_SIX_LIMIT; streak++) {
+            outcomes[streak] = new TurnOutcomes(destination, streak);
+        }
+        
+        List<double[]> rows = computeFreshTurnRows(outcomes[0]);
+        this.horizon = rows.size();
+        
+        this.finish = new double[Game.CONSECUTIVE_SIX_LIMIT][];
+        this.finish[0] = transpose(rows);
+        for (int streak = 1; streak < Game.CONSECUTIVE_SIX_LIMIT; streak++) {
+            this.finish[streak] = transpose(computeMidTurnRows(outcomes[streak], rows));
+        }
+    }
+    
+    // rows.get(t)[cell] = P(finish on turn t + 1) for a player starting a fresh turn at cell
+    private List<double[]> computeFreshTurnRows(TurnOutcomes turn) {
+        List<double[]> rows = new ArrayList<>();
+        double[] survival = new double[totalCells];
+        Arrays.fill(survival, 1.0);
+        
+        double[] first = new double[totalCells];
+        for (int cell = 0; cell < totalCells; cell++) {
+            first[cell] = turn.winProbability[cell];
+        }
+        rows.add(first);
+        
+        while (rows.size() < MAX_HORIZON) {
+            double[] previous = rows.get(rows.size() - 1);
+            double maxSurvival = 0;
+            for (int cell = 0; cell < totalCells; cell++) {
+                survival[cell] -= previous[cell];
+                maxSurvival = Math.max(maxSurvival, survival[cell]);
+            }
+            if (maxSurvival < EPSILON) {
+                break;
+            }
+            rows.add(turn.advance(previous));
+        }
+        return rows;
+    }
+    
+    private List<double[]> computeMidTurnRows(TurnOutcomes turn, List<double[]> freshRows) {
+        List<double[]> rows = new ArrayList<>(freshRows.size());
+        double[] first = new double[totalCells];
+        for (int cell = 0; cell < totalCells; cell++) {
+            first[cell] = turn.winProbability[cell];
+        }
+        rows.add(first);
+        for (int t = 1; t < freshRows.size(); t++) {
+            rows.add(turn.advance(freshRows.get(t - 1)));
+        }
+        return rows;
+    }
+    
+    private double[] transpose(List<double[]> rows) {
+        double[] table = new double[totalCells * horizon];
+        for (int t = 0; t < horizon; t++) {
+            double[] row = rows.get(t);
+            for (int cell = 0; cell < totalCells; cell++) {
+                table[cell * horizon + t] = row[cell];
+            }
+        }
+        return table;
+    }
+    
+    public int getTotalCells() {
+        return totalCells;
+    }
+    
+    public int getHorizon() {
+        return horizon;
+    }
+    
+    /**
+     * Probability that a player at the given cell, who has already rolled
+     * {@code streak} sixes in the current turn, finishes on exactly their
+     * {@code turn}-th turn (1-based, counting the current one).
+     */
+    public double finishProbability(int cell, int streak, int turn) {
+        if (turn < 1 || turn > horizon || cell >= totalCells) {
+            return 0;
+        }
+        return finish[streak][cell * horizon + turn - 1];
+    }
+    
+    /**
+     * Where a single turn can leave a player: for every start cell, the
+     * probability of winning during the turn plus a sparse list of the
+     * non-winning cells the turn can end on.
+     */
+    private class TurnOutcomes {
+        final double[] winProbability = new double[totalCells];
+        final int[][] endCells = new int[totalCells][];
+        final double[][] endProbabilities = new double[totalCells][];
+        
+        TurnOutcomes(int[] destination, int streak) {
+            double[] scratch = new double[totalCells + 1];
+            for (int cell = 0; cell < totalCells; cell++) {
+                Arrays.fill(scratch, 0);
+                roll(destination, cell, streak, 1.0, scratch);
+                winProbability[cell] = scratch[totalCells];
+                
+                int count = 0;
+                for (int end = 0; end < totalCells; end++) {
+                    if (scratch[end] > 0) count++;
+                }
+                endCells[cell] = new int[count];
+                endProbabilities[cell] = new double[count];
+                int i = 0;
+                for (int end = 0; end < totalCells; end++) {
+                    if (scratch[end] > 0) {
+                        endCells[cell][i] = end;
+                        endProbabilities[cell][i] = scratch[end];
+                        i++;
+                    }
+                }
+            }
+        }
+        
+        // Mirrors Game.playTurn: overshooting rolls stay put, a bonus roll goes
+        // again until the consecutive-bonus limit ends the turn.
+        private void roll(int[] destination, int cell, int streak, double probability, double[] out) {
+            for (int value = die.getMinRoll(); value <= die.getMaxRoll(); value++) {
+                double p = probability * die.getProbability(value);
+                if (p == 0) {
+                    continue;
+                }
+                int next = cell + value;
+                next = next > totalCells ? cell : destination[next];
+                if (next >= totalCells) {
+                    out[totalCells] += p;
+                } else if (die.isBonus(value) && streak + 1 < Game.CONSECUTIVE_SIX_LIMIT) {
+                    roll(destination, next, streak + 1, p, out);
+                } else {
+                    out[next] += p;
+                }
+            }
+        }
+        
+        double[] advance(double[] previous) {
+            double[] next = new double[totalCells];
+            for (int cell = 0; cell < totalCells; cell++) {
+                int[] ends = endCells[cell];
+                double[] probabilities = endProbabilities[cell];
+                double sum = 0;
+                for (int i = 0; i < ends.length; i++) {
+                    sum += probabilities[i] * previous[ends[i]];
+                }
+                next[cell] = sum;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.snakeladder.api;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import com.snakeladder.model.Player;
+import com.snakeladder.service.Game;
+import com.snakeladder.timer.HashedWheelTurnTimer;
+import com.snakeladder.timer.TurnTimeout;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small JSON API over the JDK's built-in HttpServer.
+ *
+ *   POST   /games?preset=beginner&players=Ann,Bob&seed=7   create a game
+ *   GET    /games/{id}                                      current state
+ *   POST   /games/{id}/turn                                 play one turn
+ *   POST   /games/{id}/turns?count=N                        play up to N turns
+ *   POST   /games/{id}/undo?count=N                         roll back up to N turns
+ *   POST   /games/{id}/redo?count=N                         replay up to N undone turns
+ *   DELETE /games/{id}                                      discard a game
+ *
+ * With a turn timeout, a player who has not rolled within that time is
+ * auto-rolled by a shared timing wheel.
+ *
+ * Headers and body go out as separate writes, so without TCP_NODELAY each
+ * small response waits on the client's delayed ACK. The JDK server reads
+ * that option once, when it is first used, so embedders should launch with
+ * -Dsun.net.httpserver.nodelay=true; main sets it for the standalone server.
+ */
+public class GameHttpServer implements AutoCloseable {
+    public static final int MAX_BATCH_TURNS = 10_000;
+    public static final int UNDO_TURNS = 64;
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Long, Game> games = new ConcurrentHashMap<>();
+    private final AtomicLong nextGameId = new AtomicLong(1);
+    private final long turnTimeoutMillis;
+    private final HashedWheelTurnTimer turnTimer;
+    private final Map<Long, TurnTimeout> turnDeadlines = new ConcurrentHashMap<>();
+    
+    public GameHttpServer(InetSocketAddress address) throws IOException {
+        this(address, 0);
+    }
+    
+    // A turn timeout of 0 disables auto-play
+    public GameHttpServer(InetSocketAddress address, long turnTimeoutMillis) throws IOException {
+        this.server = HttpServer.create(address, 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/games", this::handle);
+        
+        this.turnTimeoutMillis = turnTimeoutMillis;
+        if (turnTimeoutMillis > 0) {
+            long tickMillis = Math.max(1, Math.min(HashedWheelTurnTimer.DEFAULT_TICK_MILLIS, turnTimeoutMillis / 10));
+            this.turnTimer = new HashedWheelTurnTimer(tickMillis, TimeUnit.MILLISECONDS,
+                HashedWheelTurnTimer.DEFAULT_WHEEL_SIZE, HashedWheelTurnTimer.DEFAULT_BATCH_SIZE, null,
+                (timeout, result) -> rescheduleTurnDeadline(timeout.getSessionId(), timeout.getGame()));
+        } else {
+            this.turnTimer = null;
+        }
+    }
+    
+    // Virtual threads when the runtime has them (JDK 21+), otherwise a cached pool
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+    
+    public void start() {
+        if (turnTimer != null) {
+            turnTimer.start();
+        }
+        server.start();
+    }
+    
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+    
+    public int getGameCount() {
+        return games.size();
+    }
+    
+    public HashedWheelTurnTimer getTurnTimer() {
+        return turnTimer;
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        if (turnTimer != null) {
+            turnTimer.close();
+        }
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+            
+            if (path.length == 2 && "POST".equals(method)) {
+                send(exchange, 201, createGame(query));
+                return;
+            }
+            if (path.length < 3) {
+                send(exchange, 404, error("Unknown endpoint"));
+                return;
+            }
+            
+            long id = Long.parseLong(path[2]);
+            Game game = games.get(id);
+            if (game == null) {
+                send(exchange, 404, error("No game with id " + id));
+                return;
+            }
+            
+            String action = path.length > 3 ? path[3] : "";
+            if (action.isEmpty() && "GET".equals(method)) {
+                synchronized (game) {
+                    send(exchange, 200, state(id, game).append('}').toString());
+                }
+            } else if (action.isEmpty() && "DELETE".equals(method)) {
+                games.remove(id);
+                synchronized (game) {
+                    rescheduleTurnDeadline(id, game);
+                }
+                send(exchange, 204, null);
+            } else if ("turn".equals(action) && "POST".equals(method)) {
+                send(exchange, 200, playTurns(id, game, 1));
+            } else if ("turns".equals(action) && "POST".equals(method)) {
+                int count = Integer.parseInt(query.getOrDefault("count", "1"));
+                if (count < 1 || count > MAX_BATCH_TURNS) {
+                    send(exchange, 400, error("count must be between 1 and " + MAX_BATCH_TURNS));
+                    return;
+                }
+                send(exchange, 200, playTurns(id, game, count));
+            } else if (("undo".equals(action) || "redo".equals(action)) && "POST".equals(method)) {
+                int count = Integer.parseInt(query.getOrDefault("count", "1"));
+                if (count < 1 || count > UNDO_TURNS) {
+                    send(exchange, 400, error("count must be between 1 and " + UNDO_TURNS));
+                    return;
+                }
+                send(exchange, 200, rewind(id, game, "undo".equals(action), count));
+            } else {
+                send(exchange, 405, error("Unsupported " + method + " on " + exchange.getRequestURI().getPath()));
+            }
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, error(e.getMessage()));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(e.toString()));
+        }
+    }
+    
+    private String createGame(Map<String, String> query) {
+        BoardConfigurationBuilder builder = new BoardConfigurationBuilder();
+        switch (query.getOrDefault("preset", "default")) {
+            case "beginner":
+                builder.beginnerPreset();
+                break;
+            case "expert":
+                builder.expertPreset();
+                break;
+            case "aesthetic":
+                builder.aestheticPreset();
+                break;
+            case "default":
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown preset: " + query.get("preset"));
+        }
+        if (query.containsKey("seed")) {
+            builder.withSeed(Long.parseLong(query.get("seed")));
+        }
+        
+        List<String> names = Arrays.asList(query.getOrDefault("players", "Player 1,Player 2").split(","));
+        if (names.size() < 2) {
+            throw new IllegalArgumentException("At least two players are required");
+        }
+        BoardConfiguration config = builder.build();
+        Game game = new Game(config, names);
+        game.enableUndo(UNDO_TURNS);
+        long id = nextGameId.getAndIncrement();
+        games.put(id, game);
+        synchronized (game) {
+            rescheduleTurnDeadline(id, game);
+            return state(id, game).append('}').toString();
+        }
+    }
+    
+    private String playTurns(long id, Game game, int count) {
+        StringBuilder json = new StringBuilder(64 + count * 96);
+        synchronized (game) {
+            json.append("{\"results\":[");
+            for (int i = 0; i < count && !game.isGameEnded(); i++) {
+                Game.GameResult result = game.playTurn();
+                if (i > 0) json.append(',');
+                json.append("{\"type\":\"").append(result.getType())
+                    .append("\",\"player\":").append(quote(result.getPlayer().getName()))
+                    .append(",\"roll\":").append(result.getDiceRoll())
+                    .append(",\"position\":").append(result.getPlayer().getCurrentPosition())
+                    .append(",\"description\":").append(quote(result.getDescription()))
+                    .append('}');
+            }
+            rescheduleTurnDeadline(id, game);
+            json.append("],\"game\":").append(state(id, game)).append("}}");
+        }
+        return json.toString();
+    }
+    
+    private String rewind(long id, Game game, boolean undo, int count) {
+        synchronized (game) {
+            int done = 0;
+            while (done < count && (undo ? game.undo() : game.redo())) {
+                done++;
+            }
+            rescheduleTurnDeadline(id, game);
+            return new StringBuilder(320).append("{\"").append(undo ? "undone" : "redone").append("\":").append(done)
+                .append(",\"game\":").append(state(id, game)).append("}}").toString();
+        }
+    }
+    
+    // Caller holds the game's monitor. Drops the pending deadline and starts a
+    // fresh one while the game is still live and registered.
+    private void rescheduleTurnDeadline(long id, Game game) {
+        if (turnTimer == null) {
+            return;
+        }
+        TurnTimeout previous = turnDeadlines.remove(id);
+        if (previous != null) {
+            previous.cancel();
+        }
+        if (!game.isGameEnded() && games.get(id) == game) {
+            turnDeadlines.put(id, turnTimer.schedule(id, game, turnTimeoutMillis, TimeUnit.MILLISECONDS));
+        }
+    }
+    
+    // Caller holds the game's monitor; leaves the object open for callers to extend
+    private StringBuilder state(long id, Game game) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"id\":").append(id)
+            .append(",\"boardSize\":").append(game.getBoard().getSize())
+            .append(",\"ended\":").append(game.isGameEnded())
+            .append(",\"canUndo\":").append(game.canUndo())
+            .append(",\"canRedo\":").append(game.canRedo())
+            .append(",\"winner\":").append(game.getWinner() == null ? "null" : quote(game.getWinner().getName()))
+            .append(",\"currentPlayer\":").append(quote(game.getCurrentPlayer().getName()))
+            .append(",\"players\":[");
+        List<Player> players = game.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (i > 0) json.append(',');
+            json.append("{\"name\":").append(quote(player.getName()))
+                .append(",\"position\":").append(player.getCurrentPosition())
+                .append(",\"consecutiveSixes\":").append(player.getConsecutiveSixes())
+                .append(",\"active\":").append(player.isActive())
+                .append('}');
+        }
+        return json.append(']');
+    }
+    
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+    
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+    
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+    
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            // With no body to write, nothing else drains the request, and the
+            // JDK server closes a connection whose request was left unread
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    // Only takes effect before the first server is created, while the JDK
+    // can still pick it up; an explicit -D setting wins
+    static void enableNoDelay() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        enableNoDelay();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        long turnTimeoutMillis = args.length > 1 ? Long.parseLong(args[1]) * 1000 : 0;
+        GameHttpServer server = new GameHttpServer(new InetSocketAddress(port), turnTimeoutMillis);
+        server.start();
+        System.out.println("Snakes and Ladders API listening on port " + server.getAddress().getPort());
+    }
+}
@@ -0,0 +1,176 @@
+package com.snakeladder.api;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local load generator for GameHttpServer. Each worker creates a game and
+ * plays it in batches; when one ends it is deleted and a new one created,
+ * so the server holds one game per worker however long the run. The run
+ * reports requests per second and latency percentiles over all of them.
+ *
+ * Usage: LoadTestClient [host] [port] [workers] [requestsPerWorker] [turnsPerBatch]
+ * With no host the client starts an in-process server on a free port.
+ */
+public class LoadTestClient {
+    private static final Pattern GAME_ID = Pattern.compile("\"id\":(\\d+)");
+    
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+    
+    public LoadTestClient(String host, int port) {
+        this.baseUrl = "http://" + host + ":" + port;
+    }
+    
+    public Report run(int workers, int requestsPerWorker, int turnsPerBatch) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int w = 0; w < workers; w++) {
+            futures.add(pool.submit(() -> worker(requestsPerWorker, turnsPerBatch)));
+        }
+        
+        long[][] perWorker = new long[workers][];
+        try {
+            for (int w = 0; w < workers; w++) {
+                perWorker[w] = futures.get(w).get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load test worker failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        int total = 0;
+        for (long[] latencies : perWorker) {
+            total += latencies.length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (long[] latencies : perWorker) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+        return new Report(all, elapsed);
+    }
+    
+    private long[] worker(int requests, int turnsPerBatch) throws Exception {
+        long[] latencies = new long[requests];
+        String gameId = null;
+        boolean ended = false;
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request;
+            if (gameId == null) {
+                request = post("/games?players=bot1,bot2");
+            } else if (ended) {
+                request = delete("/games/" + gameId);
+            } else {
+                request = post("/games/" + gameId + "/turns?count=" + turnsPerBatch);
+            }
+            
+            long sent = System.nanoTime();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - sent;
+            
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+            }
+            if (gameId == null) {
+                Matcher matcher = GAME_ID.matcher(response.body());
+                matcher.find();
+                gameId = matcher.group(1);
+            } else if (ended) {
+                gameId = null;
+                ended = false;
+            } else {
+                ended = response.body().contains("\"ended\":true");
+            }
+        }
+        // Not timed: only leaves the server as the run found it
+        if (gameId != null) {
+            client.send(delete("/games/" + gameId), HttpResponse.BodyHandlers.discarding());
+        }
+        return latencies;
+    }
+    
+    private HttpRequest post(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+    }
+    
+    private HttpRequest delete(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE().build();
+    }
+    
+    public static class Report {
+        private final long[] sortedLatencies;
+        private final long elapsedNanos;
+        
+        Report(long[] sortedLatencies, long elapsedNanos) {
+            this.sortedLatencies = sortedLatencies;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public int getRequests() {
+            return sortedLatencies.length;
+        }
+        
+        public double getRequestsPerSecond() {
+            return sortedLatencies.length * 1e9 / elapsedNanos;
+        }
+        
+        public double getPercentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e6;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d requests in %.2fs: %.0f req/s, p50 %.2fms, p99 %.2fms, max %.2fms",
+                getRequests(), elapsedNanos / 1e9, getRequestsPerSecond(),
+                getPercentileMillis(50), getPercentileMillis(99), getPercentileMillis(100));
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int turnsPerBatch = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        
+        GameHttpServer embedded = null;
+        String host;
+        int port;
+        if (args.length > 1) {
+            host = args[0];
+            port = Integer.parseInt(args[1]);
+        } else {
+            GameHttpServer.enableNoDelay();
+            embedded = new GameHttpServer(new InetSocketAddress("127.0.0.1", 0));
+            embedded.start();
+            host = "127.0.0.1";
+            port = embedded.getAddress().getPort();
+        }
+        
+        try {
+            Report report = new LoadTestClient(host, port).run(workers, requests, turnsPerBatch);
+            System.out.println(report);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.snakeladder.builder;
 
+import com.snakeladder.factory.BoardGeneratorFactory;
 import com.snakeladder.model.GameLevelInterface;
 import com.snakeladder.strategy.BoardGenerationStrategy;
 
@@ -7,11 +8,28 @@ public class BoardConfiguration {
     private final int boardSize;
     private final GameLevelInterface gameLevel;
     private final BoardGenerationStrategy strategy;
+    private final boolean chainTransforms;
+    private final BoardGeneratorFactory.GeneratorType generatorType; // null when built from a bare strategy
+    private final Long seed; // null when unseeded
     
     public BoardConfiguration(int boardSize, GameLevelInterface gameLevel, BoardGenerationStrategy strategy) {
+        this(boardSize, gameLevel, strategy, false);
+    }
+    
+    public BoardConfiguration(int boardSize, GameLevelInterface gameLevel, BoardGenerationStrategy strategy,
+                              boolean chainTransforms) {
+        this(boardSize, gameLevel, strategy, chainTransforms, null, null);
+    }
+    
+    public BoardConfiguration(int boardSize, GameLevelInterface gameLevel, BoardGenerationStrategy strategy,
+                              boolean chainTransforms, BoardGeneratorFactory.GeneratorType generatorType,
+                              Long seed) {
         this.boardSize = boardSize;
         this.gameLevel = gameLevel;
         this.strategy = strategy;
+        this.chainTransforms = chainTransforms;
+        this.generatorType = generatorType;
+        this.seed = seed;
     }
     
     public int getBoardSize() {
@@ -26,6 +44,23 @@ public class BoardConfiguration {
         return strategy;
     }
     
+    public boolean isChainTransforms() {
+        return chainTransforms;
+    }
+    
+    public BoardGeneratorFactory.GeneratorType getGeneratorType() {
+        return generatorType;
+    }
+    
+    public Long getSeed() {
+        return seed;
+    }
+    
+    // A seeded configuration from the builder regenerates the same first board
+    public boolean isReproducible() {
+        return generatorType != null && seed != null;
+    }
+    
     @Override
     public String toString() {
         return String.format("BoardConfiguration{size=%dx%d, level=%s, strategy=%s}", 
@@ -14,6 +14,7 @@ public class BoardConfigurationBuilder {
     private boolean enableBalancing = true;
     private double customSnakeRatio = -1; // -1 means use level default
     private double customLadderRatio = -1; // -1 means use level default
+    private boolean chainTransforms = false; // follow snake/ladder chains to the end
     
     public BoardConfigurationBuilder withSize(int size) {
         if (size < 5 || size > 15) {
@@ -70,6 +71,11 @@ public class BoardConfigurationBuilder {
         return this;
     }
     
+    public BoardConfigurationBuilder withChainedTransforms(boolean enabled) {
+        this.chainTransforms = enabled;
+        return this;
+    }
+    
     public BoardConfigurationBuilder beginnerPreset() {
         return withSize(7)
                .withLevel(GameLevel.EASY)
@@ -111,7 +117,7 @@ public class BoardConfigurationBuilder {
             strategy = BoardGeneratorFactory.createGenerator(generatorType);
         }
         
-        return new BoardConfiguration(boardSize, effectiveLevel, strategy);
+        return new BoardConfiguration(boardSize, effectiveLevel, strategy, chainTransforms, generatorType, seed);
     }
     
     public boolean isValid() {
@@ -135,6 +141,9 @@ public class BoardConfigurationBuilder {
         if (customLadderRatio >= 0) {
             sb.append("- Custom Ladder Ratio: ").append(String.format("%.1f%%", customLadderRatio * 100)).append("\n");
         }
+        if (chainTransforms) {
+            sb.append("- Chained Transforms: enabled\n");
+        }
         return sb.toString();
     }
     
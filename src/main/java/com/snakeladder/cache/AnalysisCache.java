@@ -0,0 +1,250 @@
+package com.snakeladder.cache;
+
+import com.snakeladder.analysis.CellHeatmap;
+import com.snakeladder.analysis.EditableBoard;
+import com.snakeladder.analysis.SeatAdvantageSolver;
+import com.snakeladder.model.Board;
+import com.snakeladder.model.BoardFingerprint;
+import com.snakeladder.model.DieModel;
+import com.snakeladder.simulation.HeatmapCollector;
+import com.snakeladder.simulation.SimulationSpec;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Analysis results keyed by board fingerprint, so every distinct layout is
+ * analysed once however many seeds or generators produce it. The key also
+ * holds whatever else the result depends on (die model, player count, the
+ * simulation's games and dice seed). Concurrent requests for the same key
+ * wait for a single computation; a failed computation is not cached.
+ *
+ * Results are kept as primitive payloads, which makes them cheap to hand
+ * out as copies and to persist. A saved cache can be loaded into another
+ * process or machine, so a fleet of workers can share one file.
+ *
+ * Cache file:
+ *   magic "SNLCACH1" (8)
+ *   entry count (4), then per entry:
+ *     kind (1), fingerprint (16), parameter length (2), parameter bytes,
+ *     payload length (4), payload longs (8 each)
+ *   CRC32C of everything before it (4)
+ */
+public class AnalysisCache {
+    private static final byte[] MAGIC = "SNLCACH1".getBytes(StandardCharsets.US_ASCII);
+    private static final int EXPECTED_TURNS = 0;
+    private static final int SEAT_WIN_RATES = 1;
+    private static final int HEATMAP = 2;
+    
+    private final ConcurrentHashMap<Key, CompletableFuture<long[]>> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder computations = new LongAdder();
+    
+    // Expected turns for one player to finish, kills ignored
+    public double getExpectedTurns(Board board, DieModel die) {
+        long[] payload = get(new Key(EXPECTED_TURNS, board.getFingerprint(), parameters(die, 0)),
+            () -> new long[] {Double.doubleToLongBits(new EditableBoard(board, die).getExpectedTurns())});
+        return Double.longBitsToDouble(payload[0]);
+    }
+    
+    // Exact win probability of each seat from the start
+    public double[] getSeatWinRates(Board board, int players, DieModel die) {
+        long[] payload = get(new Key(SEAT_WIN_RATES, board.getFingerprint(), parameters(die, players)), () -> {
+            double[] wins = new SeatAdvantageSolver(die).solve(board, players).getWinProbabilities();
+            long[] bits = new long[wins.length];
+            for (int seat = 0; seat < wins.length; seat++) {
+                bits[seat] = Double.doubleToLongBits(wins[seat]);
+            }
+            return bits;
+        });
+        double[] wins = new double[payload.length];
+        for (int seat = 0; seat < wins.length; seat++) {
+            wins[seat] = Double.longBitsToDouble(payload[seat]);
+        }
+        return wins;
+    }
+    
+    // The spec's board is generated to find its fingerprint; the games are
+    // only played if no equivalent layout has been collected with the same
+    // players, dice and game range
+    public CellHeatmap getHeatmap(SimulationSpec spec) {
+        HeatmapCollector collector = new HeatmapCollector(spec);
+        byte[] parameters = parameters(spec.getDie(), spec.getPlayerCount(), spec.getDiceSeed(),
+            spec.getGameCount(), spec.getMaxTurns());
+        long[] payload = get(new Key(HEATMAP, collector.getBoard().getFingerprint(), parameters),
+            () -> collector.collect().toArray());
+        return CellHeatmap.fromArray(payload);
+    }
+    
+    private long[] get(Key key, Supplier<long[]> compute) {
+        CompletableFuture<long[]> entry = entries.get(key);
+        if (entry == null) {
+            CompletableFuture<long[]> created = new CompletableFuture<>();
+            entry = entries.putIfAbsent(key, created);
+            if (entry == null) {
+                computations.increment();
+                try {
+                    long[] payload = compute.get();
+                    created.complete(payload);
+                    return payload.clone();
+                } catch (RuntimeException | Error e) {
+                    entries.remove(key, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        hits.increment();
+        try {
+            return entry.join().clone();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    public long getHits() { return hits.sum(); }
+    public long getComputations() { return computations.sum(); }
+    
+    // Writes every finished result to a temporary file, forces it and
+    // renames it over the target, so readers never see a partial cache
+    public void save(Path file) throws IOException {
+        List<Map.Entry<Key, long[]>> finished = new ArrayList<>(entries.size());
+        for (Map.Entry<Key, CompletableFuture<long[]>> entry : entries.entrySet()) {
+            CompletableFuture<long[]> future = entry.getValue();
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                finished.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), future.join()));
+            }
+        }
+        
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32C crc = new CRC32C();
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.write(MAGIC);
+            out.writeInt(finished.size());
+            for (Map.Entry<Key, long[]> entry : finished) {
+                Key key = entry.getKey();
+                out.writeByte(key.kind);
+                key.fingerprint.writeTo(out);
+                out.writeShort(key.parameters.length);
+                out.write(key.parameters);
+                long[] payload = entry.getValue();
+                out.writeInt(payload.length);
+                for (long value : payload) {
+                    out.writeLong(value);
+                }
+            }
+            out.flush();
+            new DataOutputStream(buffered).writeInt((int) crc.getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    // Adds the file's results; entries already in this cache are kept.
+    // Returns how many were added
+    public int load(Path file) throws IOException {
+        try (BufferedInputStream buffered = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            CRC32C crc = new CRC32C();
+            DataInputStream in = new DataInputStream(new CheckedInputStream(buffered, crc));
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(file + " is not an analysis cache");
+            }
+            int count = in.readInt();
+            List<Map.Entry<Key, long[]>> read = new ArrayList<>(Math.min(count, 1 << 16));
+            for (int i = 0; i < count; i++) {
+                int kind = in.readUnsignedByte();
+                BoardFingerprint fingerprint = BoardFingerprint.readFrom(in);
+                byte[] parameters = new byte[in.readUnsignedShort()];
+                in.readFully(parameters);
+                long[] payload = new long[in.readInt()];
+                for (int j = 0; j < payload.length; j++) {
+                    payload[j] = in.readLong();
+                }
+                read.add(new AbstractMap.SimpleImmutableEntry<>(new Key(kind, fingerprint, parameters), payload));
+            }
+            int expected = new DataInputStream(buffered).readInt();
+            if ((int) crc.getValue() != expected) {
+                throw new IOException("Analysis cache " + file + " is corrupt");
+            }
+            
+            // Nothing is added until the whole file has checked out
+            int added = 0;
+            for (Map.Entry<Key, long[]> entry : read) {
+                if (entries.putIfAbsent(entry.getKey(), CompletableFuture.completedFuture(entry.getValue())) == null) {
+                    added++;
+                }
+            }
+            return added;
+        } catch (EOFException e) {
+            throw new IOException("Analysis cache " + file + " is truncated", e);
+        }
+    }
+    
+    private static byte[] parameters(DieModel die, int players, long... extra) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            die.writeTo(out);
+            out.writeByte(players);
+            for (long value : extra) {
+                out.writeLong(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /** What was analysed, on which layout, with which inputs. */
+    private static final class Key {
+        final int kind;
+        final BoardFingerprint fingerprint;
+        final byte[] parameters;
+        private final int hash;
+        
+        Key(int kind, BoardFingerprint fingerprint, byte[] parameters) {
+            this.kind = kind;
+            this.fingerprint = fingerprint;
+            this.parameters = parameters;
+            this.hash = (31 * kind + fingerprint.hashCode()) * 31 + Arrays.hashCode(parameters);
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return kind == other.kind && fingerprint.equals(other.fingerprint)
+                && Arrays.equals(parameters, other.parameters);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.snakeladder.corpus;
+
+import com.snakeladder.model.Board;
+import com.snakeladder.model.BoardEntity;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of a board corpus through a memory map. Opening maps the
+ * file in fixed segments and reads the header, so startup time and heap use
+ * do not grow with the corpus; every lookup after that is a few absolute
+ * reads from the page cache.
+ */
+public class BoardCorpus implements AutoCloseable {
+    private static final long SEGMENT_SIZE = 1L << 30;
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long boardCount;
+    private final long indexOffset;
+    private final long dataOffset;
+    private final boolean typed;
+    
+    public BoardCorpus(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long fileSize = channel.size();
+        if (fileSize < BoardCorpusFormat.HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Not a board corpus (too short): " + path);
+        }
+        int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            long start = s * SEGMENT_SIZE;
+            segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, fileSize - start));
+        }
+        
+        ByteBuffer header = segments[0];
+        int version = header.getInt(8);
+        if (header.getLong(0) != BoardCorpusFormat.MAGIC
+                || (version != BoardCorpusFormat.VERSION && version != BoardCorpusFormat.UNTYPED_VERSION)) {
+            channel.close();
+            throw new IOException("Not a board corpus, or an unsupported version: " + path);
+        }
+        this.typed = version != BoardCorpusFormat.UNTYPED_VERSION;
+        this.boardCount = header.getLong(BoardCorpusFormat.BOARD_COUNT);
+        this.indexOffset = header.getLong(BoardCorpusFormat.INDEX_OFFSET);
+        this.dataOffset = header.getLong(BoardCorpusFormat.DATA_OFFSET);
+        long dataLength = header.getLong(BoardCorpusFormat.DATA_LENGTH);
+        if (dataOffset + dataLength > fileSize) {
+            channel.close();
+            throw new IOException("Board corpus is truncated: " + path);
+        }
+    }
+    
+    public long size() {
+        return boardCount;
+    }
+    
+    public int getBoardSize(long board) {
+        long entry = indexEntry(board);
+        return segmentFor(entry).get(offsetIn(entry + 8)) & 0xFF;
+    }
+    
+    public boolean isChainTransforms(long board) {
+        long entry = indexEntry(board);
+        return (segmentFor(entry).get(offsetIn(entry + 9)) & BoardCorpusFormat.FLAG_CHAINED) != 0;
+    }
+    
+    public int getEntityCount(long board) {
+        long entry = indexEntry(board);
+        return segmentFor(entry).getShort(offsetIn(entry + 10)) & 0xFFFF;
+    }
+    
+    public int getStart(long board, int entity) {
+        long record = entityRecord(board, entity);
+        return segmentFor(record).getShort(offsetIn(record)) & 0xFFFF;
+    }
+    
+    public int getEnd(long board, int entity) {
+        long record = entityRecord(board, entity);
+        int packed = segmentFor(record).getShort(offsetIn(record + 2)) & 0xFFFF;
+        return typed ? packed & BoardCorpusFormat.MAX_CELL : packed;
+    }
+    
+    public int getTypeCode(long board, int entity) {
+        long record = entityRecord(board, entity);
+        ByteBuffer data = segmentFor(record);
+        int start = data.getShort(offsetIn(record)) & 0xFFFF;
+        return typeCode(start, data.getShort(offsetIn(record) + 2) & 0xFFFF);
+    }
+    
+    private int typeCode(int start, int packedEnd) {
+        if (typed) {
+            return packedEnd >>> BoardCorpusFormat.TYPE_SHIFT;
+        }
+        return start > packedEnd ? BoardEntity.SNAKE : BoardEntity.LADDER;
+    }
+    
+    // Builds an on-heap Board straight from the packed records
+    public Board getBoard(long board) {
+        long entry = indexEntry(board);
+        ByteBuffer index = segmentFor(entry);
+        int at = offsetIn(entry);
+        long recordStart = dataOffset + index.getLong(at);
+        int size = index.get(at + 8) & 0xFF;
+        boolean chained = (index.get(at + 9) & BoardCorpusFormat.FLAG_CHAINED) != 0;
+        int entityCount = index.getShort(at + 10) & 0xFFFF;
+        
+        List<BoardEntity> entities = new ArrayList<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            long record = recordStart + (long) i * BoardCorpusFormat.ENTITY_RECORD_SIZE;
+            ByteBuffer data = segmentFor(record);
+            int start = data.getShort(offsetIn(record)) & 0xFFFF;
+            int packedEnd = data.getShort(offsetIn(record) + 2) & 0xFFFF;
+            int end = typed ? packedEnd & BoardCorpusFormat.MAX_CELL : packedEnd;
+            entities.add(BoardEntity.of(typeCode(start, packedEnd), start, end));
+        }
+        return new Board(size, entities, chained);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private long indexEntry(long board) {
+        if (board < 0 || board >= boardCount) {
+            throw new IndexOutOfBoundsException("Board " + board + " not in corpus of " + boardCount);
+        }
+        return indexOffset + board * BoardCorpusFormat.INDEX_ENTRY_SIZE;
+    }
+    
+    private long entityRecord(long board, int entity) {
+        long entry = indexEntry(board);
+        ByteBuffer index = segmentFor(entry);
+        int count = index.getShort(offsetIn(entry + 10)) & 0xFFFF;
+        if (entity < 0 || entity >= count) {
+            throw new IndexOutOfBoundsException("Entity " + entity + " not on board " + board);
+        }
+        return dataOffset + index.getLong(offsetIn(entry)) + (long) entity * BoardCorpusFormat.ENTITY_RECORD_SIZE;
+    }
+    
+    private MappedByteBuffer segmentFor(long fileOffset) {
+        return segments[(int) (fileOffset / SEGMENT_SIZE)];
+    }
+    
+    private static int offsetIn(long fileOffset) {
+        return (int) (fileOffset % SEGMENT_SIZE);
+    }
+}
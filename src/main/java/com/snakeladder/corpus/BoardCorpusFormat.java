@@ -0,0 +1,43 @@
+package com.snakeladder.corpus;
+
+/**
+ * Layout of a board corpus file. All values are big-endian.
+ *
+ *   header (64 bytes)
+ *     0  magic "SNLCORP1" (8)    8  version (4)         12 reserved (4)
+ *     16 board count (8)         24 index offset (8)    32 data offset (8)
+ *     40 data length (8)         48 reserved (16)
+ *
+ *   index, one 16-byte entry per board
+ *     0  record offset from the data start (8)
+ *     8  board size (1)    9 flags (1)    10 entity count (2)    12 reserved (4)
+ *
+ *   data, 4 bytes per entity: start cell (2), then the entity's type code
+ *   in the top 4 bits and its end cell in the low 12 bits (2). Version 1
+ *   files have no type code; a start above the end is a snake, below it a
+ *   ladder.
+ *
+ * Index entries and entity records are aligned to their own size, and the
+ * mapping segment size is a multiple of both, so neither ever straddles
+ * two segments.
+ */
+final class BoardCorpusFormat {
+    static final long MAGIC = 0x534E4C434F525031L; // "SNLCORP1"
+    static final int VERSION = 2;
+    static final int UNTYPED_VERSION = 1;
+    
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int ENTITY_RECORD_SIZE = 4;
+    static final int FLAG_CHAINED = 1;
+    static final int TYPE_SHIFT = 12;
+    static final int MAX_CELL = (1 << TYPE_SHIFT) - 1;
+    
+    static final int BOARD_COUNT = 16;
+    static final int INDEX_OFFSET = 24;
+    static final int DATA_OFFSET = 32;
+    static final int DATA_LENGTH = 40;
+    
+    private BoardCorpusFormat() {
+    }
+}
@@ -0,0 +1,155 @@
+package com.snakeladder.corpus;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import com.snakeladder.model.Board;
+import com.snakeladder.model.BoardEntity;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a board corpus in one pass. The index is sized up front from the
+ * expected board count; entity records are streamed after it, and the
+ * header is written last so a half-written file never looks complete.
+ *
+ * Usage: BoardCorpusWriter file count [firstSeed] [size]
+ */
+public class BoardCorpusWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    private final FileChannel channel;
+    private final long capacity;
+    private final long indexOffset;
+    private final long dataOffset;
+    private final ByteBuffer indexBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ByteBuffer dataBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long indexFlushed;
+    private long dataWritten;
+    private long boardCount;
+    private boolean closed;
+    
+    public BoardCorpusWriter(Path path, long capacity) throws IOException {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.capacity = capacity;
+        this.indexOffset = BoardCorpusFormat.HEADER_SIZE;
+        this.dataOffset = indexOffset + capacity * BoardCorpusFormat.INDEX_ENTRY_SIZE;
+    }
+    
+    // Returns the board's index in the corpus
+    public long append(Board board) throws IOException {
+        if (boardCount == capacity) {
+            throw new IllegalStateException("Corpus is full at " + capacity + " boards");
+        }
+        int entityCount = board.getAllEntities().size();
+        if (entityCount > 0xFFFF) {
+            throw new IllegalArgumentException("Too many entities on one board: " + entityCount);
+        }
+        if (board.getTotalCells() > BoardCorpusFormat.MAX_CELL) {
+            throw new IllegalArgumentException("Boards over " + BoardCorpusFormat.MAX_CELL + " cells do not fit");
+        }
+        
+        if (indexBuffer.remaining() < BoardCorpusFormat.INDEX_ENTRY_SIZE) {
+            flushIndex();
+        }
+        indexBuffer.putLong(dataWritten);
+        indexBuffer.put((byte) board.getSize());
+        indexBuffer.put((byte) (board.isChainTransforms() ? BoardCorpusFormat.FLAG_CHAINED : 0));
+        indexBuffer.putShort((short) entityCount);
+        indexBuffer.putInt(0);
+        
+        // Walking cells in order keeps each board's records sorted by start cell
+        for (int cell = 1; cell <= board.getTotalCells(); cell++) {
+            BoardEntity entity = board.getEntityAt(cell);
+            if (entity == null) {
+                continue;
+            }
+            if (dataBuffer.remaining() < BoardCorpusFormat.ENTITY_RECORD_SIZE) {
+                flushData();
+            }
+            dataBuffer.putShort((short) cell);
+            dataBuffer.putShort((short) (entity.getTypeCode() << BoardCorpusFormat.TYPE_SHIFT
+                | entity.getEndPosition()));
+            dataWritten += BoardCorpusFormat.ENTITY_RECORD_SIZE;
+        }
+        return boardCount++;
+    }
+    
+    public long getBoardCount() {
+        return boardCount;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flushIndex();
+            flushData();
+            ByteBuffer header = ByteBuffer.allocate(BoardCorpusFormat.HEADER_SIZE);
+            header.putLong(BoardCorpusFormat.MAGIC);
+            header.putInt(BoardCorpusFormat.VERSION);
+            header.putInt(0);
+            header.putLong(boardCount);
+            header.putLong(indexOffset);
+            header.putLong(dataOffset);
+            header.putLong(dataWritten);
+            header.clear();
+            channel.force(false);
+            writeFully(header, 0);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private void flushIndex() throws IOException {
+        indexBuffer.flip();
+        long position = indexOffset + indexFlushed;
+        indexFlushed += indexBuffer.remaining();
+        writeFully(indexBuffer, position);
+        indexBuffer.clear();
+    }
+    
+    private void flushData() throws IOException {
+        dataBuffer.flip();
+        long position = dataOffset + dataWritten - dataBuffer.remaining();
+        writeFully(dataBuffer, position);
+        dataBuffer.clear();
+    }
+    
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "boards.corpus");
+        long count = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int size = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        
+        long start = System.nanoTime();
+        try (BoardCorpusWriter writer = new BoardCorpusWriter(path, count)) {
+            for (long i = 0; i < count; i++) {
+                BoardConfiguration config = new BoardConfigurationBuilder()
+                    .withSize(size)
+                    .withSeed(firstSeed + i)
+                    .build();
+                writer.append(new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy(),
+                    config.isChainTransforms()));
+            }
+        }
+        System.out.printf("Wrote %d boards to %s in %.2fs%n", count, path, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,15 @@
+package com.snakeladder.event;
+
+/**
+ * Lowest latency; burns a whole core per consumer while idle.
+ */
+public class BusySpinWaitStrategy implements WaitStrategy {
+    @Override
+    public long waitFor(long sequence, Sequence cursor, EventProcessor processor) {
+        long available;
+        while ((available = cursor.get()) < sequence && processor.isRunning()) {
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+}
@@ -0,0 +1,11 @@
+package com.snakeladder.event;
+
+/**
+ * Receives every published event in order on its own thread. endOfBatch is
+ * true for the last event currently available, which is the natural place
+ * to flush buffered output.
+ */
+@FunctionalInterface
+public interface EventConsumer {
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,97 @@
+package com.snakeladder.event;
+
+import com.snakeladder.service.Game;
+import com.snakeladder.service.GameListener;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wires a Game to independent consumers through an EventRing. Attach the
+ * pipeline (or one listener per game from listenerFor) to games played on
+ * a single thread; each consumer runs on its own daemon thread with its own
+ * wait strategy.
+ */
+public class EventPipeline implements GameListener, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    
+    private final EventRing ring;
+    private final List<EventProcessor> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private boolean started;
+    private boolean closed;
+    
+    public EventPipeline() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public EventPipeline(int capacity) {
+        this.ring = new EventRing(capacity);
+    }
+    
+    public synchronized EventPipeline addConsumer(String name, EventConsumer consumer, WaitStrategy waitStrategy) {
+        if (started) {
+            throw new IllegalStateException("Consumers must be added before the pipeline starts");
+        }
+        EventProcessor processor = new EventProcessor(name, ring, consumer, waitStrategy);
+        processors.add(processor);
+        ring.addGatingSequence(processor.getSequence());
+        return this;
+    }
+    
+    public synchronized EventPipeline start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        started = true;
+        for (EventProcessor processor : processors) {
+            Thread thread = new Thread(processor, "event-" + processor.getName());
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        return this;
+    }
+    
+    @Override
+    public void onTurn(Game game, Game.GameResult result) {
+        ring.tryPublish(0, result);
+    }
+    
+    // Allocated once per game, not per event
+    public GameListener listenerFor(long gameId) {
+        return (game, result) -> ring.tryPublish(gameId, result);
+    }
+    
+    public boolean publish(long gameId, Game.GameResult result) {
+        return ring.tryPublish(gameId, result);
+    }
+    
+    public long getDroppedEvents() {
+        return ring.getDroppedEvents();
+    }
+    
+    // How far the slowest consumer trails the producer
+    public long getBacklog() {
+        long cursor = ring.getCursor().get();
+        return cursor - ring.minimumGatingSequence(cursor);
+    }
+    
+    // Lets consumers drain everything already published, then stops them
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (EventProcessor processor : processors) {
+            processor.halt();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
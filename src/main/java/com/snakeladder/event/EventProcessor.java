@@ -0,0 +1,68 @@
+package com.snakeladder.event;
+
+/**
+ * Runs one consumer on its own thread: waits for published events, hands
+ * over everything available as one batch, then advances its sequence so
+ * the producer can reuse the slots.
+ */
+public class EventProcessor implements Runnable {
+    private final String name;
+    private final EventRing ring;
+    private final EventConsumer consumer;
+    private final WaitStrategy waitStrategy;
+    private final Sequence sequence = new Sequence(-1);
+    private volatile boolean running = true;
+    private volatile long failures;
+    
+    EventProcessor(String name, EventRing ring, EventConsumer consumer, WaitStrategy waitStrategy) {
+        this.name = name;
+        this.ring = ring;
+        this.consumer = consumer;
+        this.waitStrategy = waitStrategy;
+    }
+    
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (true) {
+            long available = waitStrategy.waitFor(next, ring.getCursor(), this);
+            if (available < next) {
+                // Re-check after seeing the halt so a last publish is not missed
+                if (!running && ring.getCursor().get() < next) {
+                    break;
+                }
+                continue;
+            }
+            for (; next <= available; next++) {
+                try {
+                    consumer.onEvent(ring.get(next), next, next == available);
+                } catch (Exception e) {
+                    failures++;
+                    System.err.println("Event consumer '" + name + "' failed on event " + next + ": " + e);
+                }
+            }
+            sequence.lazySet(available);
+        }
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    public long getFailures() {
+        return failures;
+    }
+    
+    // Events published before the halt are still delivered
+    void halt() {
+        running = false;
+    }
+    
+    Sequence getSequence() {
+        return sequence;
+    }
+}
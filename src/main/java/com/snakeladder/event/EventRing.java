@@ -0,0 +1,82 @@
+package com.snakeladder.event;
+
+import com.snakeladder.service.Game;
+
+/**
+ * Bounded single-producer ring of pre-allocated event slots. Each consumer
+ * sees every event and tracks its own sequence. When the slowest consumer
+ * is a full ring behind, the producer drops the event and counts it
+ * instead of waiting, so publishing never blocks and never allocates.
+ */
+public class EventRing {
+    private final GameEvent[] slots;
+    private final int mask;
+    private final Sequence cursor = new Sequence(-1);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+    
+    // Producer-only state
+    private long nextSequence;
+    private long cachedGate = -1;
+    private volatile long droppedEvents;
+    
+    public EventRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new GameEvent();
+        }
+        this.mask = capacity - 1;
+    }
+    
+    // Must only be called from the single producer thread
+    public boolean tryPublish(long gameId, Game.GameResult result) {
+        long sequence = nextSequence;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedGate) {
+            cachedGate = minimumGatingSequence(sequence - 1);
+            if (wrapPoint > cachedGate) {
+                droppedEvents++;
+                return false;
+            }
+        }
+        slots[(int) (sequence & mask)].set(gameId, result, System.nanoTime());
+        nextSequence = sequence + 1;
+        cursor.lazySet(sequence);
+        return true;
+    }
+    
+    public GameEvent get(long sequence) {
+        return slots[(int) (sequence & mask)];
+    }
+    
+    public Sequence getCursor() {
+        return cursor;
+    }
+    
+    public int getCapacity() {
+        return slots.length;
+    }
+    
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+    
+    // Consumers are registered before publishing starts
+    void addGatingSequence(Sequence sequence) {
+        Sequence[] current = gatingSequences;
+        Sequence[] grown = new Sequence[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = sequence;
+        gatingSequences = grown;
+    }
+    
+    long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+}
@@ -0,0 +1,43 @@
+package com.snakeladder.event;
+
+import com.snakeladder.model.Player;
+import com.snakeladder.service.Game;
+
+/**
+ * A reusable ring slot. The producer overwrites the fields in place, so a
+ * consumer must copy anything it wants to keep before its sequence moves on.
+ */
+public class GameEvent {
+    private long gameId;
+    private Game.GameResultType type;
+    private Player player;
+    private int diceRoll;
+    private int position;
+    private String description;
+    private long publishNanos;
+    
+    void set(long gameId, Game.GameResult result, long publishNanos) {
+        this.gameId = gameId;
+        this.type = result.getType();
+        this.player = result.getPlayer();
+        this.diceRoll = result.getDiceRoll();
+        // Captured now; the player keeps moving after the event is published
+        this.position = player != null ? player.getCurrentPosition() : 0;
+        this.description = result.getDescription();
+        this.publishNanos = publishNanos;
+    }
+    
+    public long getGameId() { return gameId; }
+    public Game.GameResultType getType() { return type; }
+    public Player getPlayer() { return player; }
+    public int getDiceRoll() { return diceRoll; }
+    public int getPosition() { return position; }
+    public String getDescription() { return description; }
+    public long getPublishNanos() { return publishNanos; }
+    
+    @Override
+    public String toString() {
+        return String.format("GameEvent{game=%d, type=%s, player=%s, roll=%d, position=%d}",
+            gameId, type, player != null ? player.getName() : "-", diceRoll, position);
+    }
+}
@@ -0,0 +1,33 @@
+package com.snakeladder.event;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes one line per event and flushes once per batch, so a slow log
+ * file costs one write call per burst rather than one per turn.
+ */
+public class LoggingEventConsumer implements EventConsumer {
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(160);
+    
+    public LoggingEventConsumer(Writer out) {
+        this.out = out;
+    }
+    
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws IOException {
+        line.setLength(0);
+        line.append(sequence).append('\t')
+            .append(event.getGameId()).append('\t')
+            .append(event.getType()).append('\t')
+            .append(event.getPlayer() != null ? event.getPlayer().getName() : "-").append('\t')
+            .append(event.getDiceRoll()).append('\t')
+            .append(event.getPosition()).append('\t')
+            .append(event.getDescription()).append('\n');
+        out.append(line);
+        if (endOfBatch) {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.snakeladder.event;
+
+import com.snakeladder.service.Game;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events by result type and tracks batch sizes and how long events
+ * wait in the ring. Written by the consumer thread only; readable from any
+ * thread.
+ */
+public class MetricsEventConsumer implements EventConsumer {
+    private final AtomicLongArray countsByType = new AtomicLongArray(Game.GameResultType.values().length);
+    private volatile long events;
+    private volatile long batches;
+    private volatile long maxBatchSize;
+    private volatile long totalQueueNanos;
+    private volatile long maxQueueNanos;
+    private long currentBatchSize;
+    
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        countsByType.lazySet(event.getType().ordinal(), countsByType.get(event.getType().ordinal()) + 1);
+        long queued = System.nanoTime() - event.getPublishNanos();
+        totalQueueNanos += queued;
+        if (queued > maxQueueNanos) {
+            maxQueueNanos = queued;
+        }
+        events++;
+        currentBatchSize++;
+        if (endOfBatch) {
+            batches++;
+            if (currentBatchSize > maxBatchSize) {
+                maxBatchSize = currentBatchSize;
+            }
+            currentBatchSize = 0;
+        }
+    }
+    
+    public long getCount(Game.GameResultType type) {
+        return countsByType.get(type.ordinal());
+    }
+    
+    public long getEvents() { return events; }
+    public long getBatches() { return batches; }
+    public long getMaxBatchSize() { return maxBatchSize; }
+    public long getMaxQueueNanos() { return maxQueueNanos; }
+    
+    public double getAverageBatchSize() {
+        long b = batches;
+        return b == 0 ? 0 : (double) events / b;
+    }
+    
+    public double getAverageQueueMicros() {
+        long e = events;
+        return e == 0 ? 0 : totalQueueNanos / 1e3 / e;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Event metrics: ").append(events).append(" events");
+        for (Game.GameResultType type : Game.GameResultType.values()) {
+            sb.append(", ").append(type).append('=').append(getCount(type));
+        }
+        return sb.append(String.format(", avg batch %.1f (max %d), avg queue %.1fus (max %.1fus)",
+            getAverageBatchSize(), maxBatchSize, getAverageQueueMicros(), maxQueueNanos / 1e3)).toString();
+    }
+}
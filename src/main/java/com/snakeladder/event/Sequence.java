@@ -0,0 +1,19 @@
+package com.snakeladder.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ring position owned by one thread and read by others. The trailing
+ * padding keeps the producer cursor and each consumer's sequence off one
+ * another's cache lines, so updates do not keep invalidating each other.
+ * Never serialized; AtomicLong is only extended for its atomic operations.
+ */
+@SuppressWarnings("serial")
+public class Sequence extends AtomicLong {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+    
+    public Sequence(long initialValue) {
+        super(initialValue);
+    }
+}
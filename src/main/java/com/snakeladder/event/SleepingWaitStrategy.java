@@ -0,0 +1,42 @@
+package com.snakeladder.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins, yields, then parks for a fixed interval. Nearly free while idle,
+ * at the cost of up to one interval of extra latency; a good fit for
+ * display and logging.
+ */
+public class SleepingWaitStrategy implements WaitStrategy {
+    public static final long DEFAULT_SLEEP_NANOS = 100_000;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    
+    private final long sleepNanos;
+    
+    public SleepingWaitStrategy() {
+        this(DEFAULT_SLEEP_NANOS);
+    }
+    
+    public SleepingWaitStrategy(long sleepNanos) {
+        this.sleepNanos = sleepNanos;
+    }
+    
+    @Override
+    public long waitFor(long sequence, Sequence cursor, EventProcessor processor) {
+        long available;
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while ((available = cursor.get()) < sequence && processor.isRunning()) {
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,10 @@
+package com.snakeladder.event;
+
+/**
+ * How a consumer waits for the producer. Returns the highest published
+ * sequence once it reaches the requested one, or earlier with whatever is
+ * published when the processor is halted.
+ */
+public interface WaitStrategy {
+    long waitFor(long sequence, Sequence cursor, EventProcessor processor);
+}
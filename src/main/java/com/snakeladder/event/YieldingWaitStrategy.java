@@ -0,0 +1,23 @@
+package com.snakeladder.event;
+
+/**
+ * Spins briefly, then yields the CPU between checks.
+ */
+public class YieldingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+    
+    @Override
+    public long waitFor(long sequence, Sequence cursor, EventProcessor processor) {
+        long available;
+        int counter = SPIN_TRIES;
+        while ((available = cursor.get()) < sequence && processor.isRunning()) {
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+}
@@ -3,12 +3,16 @@ package com.snakeladder.factory;
 import com.snakeladder.strategy.BoardGenerationStrategy;
 import com.snakeladder.strategy.RandomBoardGenerationStrategy;
 import com.snakeladder.strategy.BalancedBoardGenerationStrategy;
+import com.snakeladder.strategy.OptimizedBoardGenerationStrategy;
+import com.snakeladder.strategy.ZoneParallelBoardGenerationStrategy;
 
 public class BoardGeneratorFactory {
     
     public enum GeneratorType {
         RANDOM("Random placement"),
-        BALANCED("Balanced distribution");
+        BALANCED("Balanced distribution"),
+        ZONE_PARALLEL("Balanced distribution, zones generated in parallel"),
+        OPTIMIZED("Balanced start annealed towards target length and seat balance");
         
         private final String description;
         
@@ -27,6 +31,10 @@ public class BoardGeneratorFactory {
                 return new RandomBoardGenerationStrategy();
             case BALANCED:
                 return new BalancedBoardGenerationStrategy();
+            case ZONE_PARALLEL:
+                return new ZoneParallelBoardGenerationStrategy();
+            case OPTIMIZED:
+                return new OptimizedBoardGenerationStrategy();
             default:
                 throw new IllegalArgumentException("Unknown generator type: " + type);
         }
@@ -38,6 +46,10 @@ public class BoardGeneratorFactory {
                 return new RandomBoardGenerationStrategy(seed);
             case BALANCED:
                 return new BalancedBoardGenerationStrategy(seed);
+            case ZONE_PARALLEL:
+                return new ZoneParallelBoardGenerationStrategy(seed);
+            case OPTIMIZED:
+                return new OptimizedBoardGenerationStrategy(seed);
             default:
                 throw new IllegalArgumentException("Unknown generator type: " + type);
         }
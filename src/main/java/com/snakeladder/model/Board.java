@@ -4,25 +4,100 @@ import com.snakeladder.strategy.BoardGenerationStrategy;
 import java.util.*;
 
 public class Board {
+    public static final int NO_ENTITY = -1;
+    
     private int boardSize;
     private int numberOfCells;
     private Map<Integer, BoardEntity> boardEntities;
     private BoardGenerationStrategy strategy;
+    private boolean chainTransforms;
+    private int[] destinations;
+    private byte[] entityTypes;
+    private boolean turnEffects;
+    private BoardFingerprint fingerprint;
     
     public Board(int sz, GameLevelInterface gameLevel, BoardGenerationStrategy genStrategy) {
+        this(sz, gameLevel, genStrategy, false);
+    }
+    
+    public Board(int sz, GameLevelInterface gameLevel, BoardGenerationStrategy genStrategy, boolean chainTransforms) {
         this.boardSize = sz;
         numberOfCells = sz * sz;  // calculate total cells
         strategy = genStrategy;
+        this.chainTransforms = chainTransforms;
         boardEntities = new HashMap<Integer, BoardEntity>();
         setupBoard(gameLevel);
     }
     
+    // Board with a known layout, e.g. loaded from a corpus, so no strategy runs
+    public Board(int sz, List<BoardEntity> entities, boolean chainTransforms) {
+        this.boardSize = sz;
+        numberOfCells = sz * sz;
+        this.chainTransforms = chainTransforms;
+        boardEntities = new HashMap<Integer, BoardEntity>(entities.size() * 2);
+        placeEntities(entities);
+    }
+    
     private void setupBoard(GameLevelInterface level) {
-        List<BoardEntity> entityList = strategy.generateEntities(numberOfCells, level);
+        placeEntities(strategy.generateEntities(numberOfCells, level));
+    }
+    
+    private void placeEntities(List<BoardEntity> entityList) {
         // put entities in the map
         for (BoardEntity e : entityList) {
             boardEntities.put(e.getStartPosition(), e);
         }
+        resolveDestinations();
+    }
+    
+    // Precompute where every cell finally leads so a move is always one array lookup,
+    // and what kind of entity starts on each cell so the game never asks the entity.
+    // With chaining, paths are followed to the end and every cell on them is compressed
+    // to the final destination; a cycle makes the board unplayable.
+    private void resolveDestinations() {
+        destinations = new int[numberOfCells + 1];
+        entityTypes = new byte[numberOfCells + 1];
+        Arrays.fill(entityTypes, (byte) NO_ENTITY);
+        for (int cell = 0; cell <= numberOfCells; cell++) {
+            destinations[cell] = cell;
+        }
+        for (BoardEntity entity : boardEntities.values()) {
+            int cell = entity.getStartPosition();
+            if (cell < 0 || cell > numberOfCells) {
+                continue;
+            }
+            int type = entity.getTypeCode();
+            entityTypes[cell] = (byte) type;
+            if (type == BoardEntity.BOOSTER || type == BoardEntity.LOSE_TURN) {
+                turnEffects = true;
+            } else {
+                destinations[cell] = entity.getEndPosition();
+            }
+        }
+        if (!chainTransforms) {
+            return;
+        }
+        
+        byte[] state = new byte[numberOfCells + 1]; // 0 = unvisited, 1 = on current path, 2 = resolved
+        int[] path = new int[numberOfCells + 1];
+        for (int cell = 0; cell <= numberOfCells; cell++) {
+            int length = 0;
+            int current = cell;
+            while (state[current] == 0 && destinations[current] != current) {
+                state[current] = 1;
+                path[length++] = current;
+                current = destinations[current];
+            }
+            if (state[current] == 1) {
+                throw new IllegalStateException("Snake/ladder cycle through cell " + current);
+            }
+            int target = destinations[current];
+            for (int i = 0; i < length; i++) {
+                destinations[path[i]] = target;
+                state[path[i]] = 2;
+            }
+            state[current] = 2;
+        }
     }
     
     public int getSize() {
@@ -52,12 +127,38 @@ public class Board {
     }
     
     public int transformPosition(int pos) {
-        BoardEntity entity = boardEntities.get(pos);
-        if (entity != null) {
-            return entity.transform(pos);
-        } else {
+        if (pos < 0 || pos > numberOfCells) {
             return pos;
         }
+        return destinations[pos];
+    }
+    
+    public boolean isChainTransforms() {
+        return chainTransforms;
+    }
+    
+    // Type code of the entity starting on the cell, or NO_ENTITY
+    public int getEntityTypeAt(int pos) {
+        if (pos < 0 || pos > numberOfCells) {
+            return NO_ENTITY;
+        }
+        return entityTypes[pos];
+    }
+    
+    // Whether any cell changes the turn rather than the position; the
+    // Markov analyses only model snakes, ladders and portals
+    public boolean hasTurnEffects() {
+        return turnEffects;
+    }
+    
+    // Computed on first use; a racing duplicate computes the same value
+    public BoardFingerprint getFingerprint() {
+        BoardFingerprint result = fingerprint;
+        if (result == null) {
+            result = BoardFingerprint.of(this);
+            fingerprint = result;
+        }
+        return result;
     }
     
     public BoardEntity getEntityAt(int pos) {
@@ -1,9 +1,59 @@
 package com.snakeladder.model;
 
-public interface BoardEntity {
+/**
+ * Something placed on a board cell. The set of kinds is closed so every
+ * kind has a small type code, which Board compiles into its primitive
+ * tables; the move loop reads those tables and never calls back into the
+ * entities. Snakes, ladders and portals move the player; boosters and
+ * lose-a-turn cells leave the player where they are (their end is their
+ * start) and change the turn instead.
+ */
+public sealed interface BoardEntity permits Snake, Ladder, Portal, Booster, LoseTurnCell {
+    int SNAKE = 0;
+    int LADDER = 1;
+    int PORTAL = 2;
+    int BOOSTER = 3;
+    int LOSE_TURN = 4;
+    int TYPE_COUNT = 5;
+    
     int getStartPosition();
     int getEndPosition();
-    String getType();
+    int getTypeCode();
     int transform(int currentPosition);
+    
+    default String getType() {
+        switch (getTypeCode()) {
+            case SNAKE: return "SNAKE";
+            case LADDER: return "LADDER";
+            case PORTAL: return "PORTAL";
+            case BOOSTER: return "BOOSTER";
+            default: return "LOSE_TURN";
+        }
+    }
+    
+    // Lower-case name for messages; a constant, so nothing is built per move
+    static String typeName(int typeCode) {
+        switch (typeCode) {
+            case SNAKE: return "snake";
+            case LADDER: return "ladder";
+            case PORTAL: return "portal";
+            case BOOSTER: return "booster";
+            case LOSE_TURN: return "lose-a-turn cell";
+            default: throw new IllegalArgumentException("Unknown entity type code: " + typeCode);
+        }
+    }
+    
+    // Rebuilds an entity from its primitive form; single-cell kinds need end == start
+    static BoardEntity of(int typeCode, int start, int end) {
+        switch (typeCode) {
+            case SNAKE: return new Snake(start, end);
+            case LADDER: return new Ladder(start, end);
+            case PORTAL: return new Portal(start, end);
+            default:
+                if (end != start) {
+                    throw new IllegalArgumentException(typeName(typeCode) + " must end where it starts");
+                }
+                return typeCode == BOOSTER ? new Booster(start) : new LoseTurnCell(start);
+        }
+    }
 }
-
@@ -0,0 +1,92 @@
+package com.snakeladder.model;
+
+import com.snakeladder.util.Mix64;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A 128-bit identity for what a board does rather than how it was built:
+ * the cell count, where every cell finally leads after snakes, ladders,
+ * portals and any chaining, and which cells change the turn. Boards from
+ * different seeds or generators that play identically get the same
+ * fingerprint, so a ladder and a portal with the same ends are
+ * indistinguishable, as are an unchained board and the chained board it
+ * compresses to.
+ *
+ * The two halves are independent 64-bit hashes over the same cell
+ * sequence, which keeps accidental collisions out of reach for any
+ * realistic number of layouts. It is not meant to resist deliberate ones.
+ */
+public final class BoardFingerprint {
+    private static final long HIGH_SEED = 0x243F6A8885A308D3L;
+    private static final long LOW_SEED = 0x13198A2E03707344L;
+    
+    private final long high;
+    private final long low;
+    
+    public BoardFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    public static BoardFingerprint of(Board board) {
+        int totalCells = board.getTotalCells();
+        long high = Mix64.mix(HIGH_SEED ^ totalCells);
+        long low = Mix64.mix(LOW_SEED + totalCells * 0x9E3779B97F4A7C15L);
+        int changed = 0;
+        for (int cell = 0; cell <= totalCells; cell++) {
+            int destination = board.transformPosition(cell);
+            int type = board.getEntityTypeAt(cell);
+            int effect = type == BoardEntity.BOOSTER || type == BoardEntity.LOSE_TURN ? type + 1 : 0;
+            if (destination == cell && effect == 0) {
+                continue;
+            }
+            // Only cells that do something are hashed, so an unused cell costs nothing
+            long word = (long) cell << 40 | (long) destination << 8 | effect;
+            high = Mix64.mix(high ^ word);
+            low = Mix64.mix(low + word * 0xC2B2AE3D27D4EB4FL);
+            changed++;
+        }
+        return new BoardFingerprint(Mix64.mix(high ^ changed), Mix64.mix(low + changed));
+    }
+    
+    public long getHigh() { return high; }
+    public long getLow() { return low; }
+    
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(high);
+        out.writeLong(low);
+    }
+    
+    public static BoardFingerprint readFrom(DataInput in) throws IOException {
+        return new BoardFingerprint(in.readLong(), in.readLong());
+    }
+    
+    // Inverse of toString
+    public static BoardFingerprint parse(String hex) {
+        if (hex.length() != 32) {
+            throw new IllegalArgumentException("A fingerprint is 32 hex digits: " + hex);
+        }
+        return new BoardFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+            Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardFingerprint)) return false;
+        BoardFingerprint other = (BoardFingerprint) o;
+        return high == other.high && low == other.low;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(high ^ low);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
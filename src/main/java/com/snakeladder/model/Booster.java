@@ -0,0 +1,35 @@
+package com.snakeladder.model;
+
+// Ending a move here gives the player another roll
+public final class Booster implements BoardEntity {
+    private final int cell;
+    
+    public Booster(int cell) {
+        this.cell = cell;
+    }
+    
+    @Override
+    public int getStartPosition() {
+        return cell;
+    }
+    
+    @Override
+    public int getEndPosition() {
+        return cell;
+    }
+    
+    @Override
+    public int getTypeCode() {
+        return BOOSTER;
+    }
+    
+    @Override
+    public int transform(int pos) {
+        return pos;
+    }
+    
+    @Override
+    public String toString() {
+        return "Booster{cell=" + cell + "}";
+    }
+}
@@ -4,26 +4,36 @@ import java.util.Random;
 
 public class Dice {
     private Random rand;
+    private final DieModel model;
     
     public Dice() {
-        this.rand = new Random();
+        this(DieModel.STANDARD, new Random());
     }
     
     public Dice(Random r) {
+        this(DieModel.STANDARD, r);
+    }
+    
+    public Dice(DieModel model) {
+        this(model, new Random());
+    }
+    
+    public Dice(DieModel model, Random r) {
+        this.model = model;
         rand = r;  // no this keyword needed here
     }
     
     public int roll() {
-        // Generate random number from 1-6
-        int result = rand.nextInt(6) + 1;
-        return result;
+        // One fair die draws nextInt(faces) + 1 exactly as before; anything else uses the alias table
+        return model.sample(rand);
+    }
+    
+    public boolean isBonus(int diceValue) {
+        return model.isBonus(diceValue);
     }
     
-    public static boolean isSix(int diceValue) {
-        if (diceValue == 6) 
-            return true;
-        else 
-            return false;
+    public DieModel getModel() {
+        return model;
     }
 }
 
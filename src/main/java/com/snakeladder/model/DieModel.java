@@ -0,0 +1,242 @@
+package com.snakeladder.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * What one roll of the dice looks like: how many identical dice, the weight
+ * of each face, and which total earns a bonus roll. The distribution of the
+ * total is computed once, so games, simulations and the exact analysis all
+ * read the same probabilities. Rolls are drawn from an alias table in O(1)
+ * however many dice or faces there are; a single fair die skips the table.
+ */
+public final class DieModel {
+    public static final int NO_BONUS = 0;
+    public static final DieModel STANDARD = fair(1, 6);
+    
+    private final int diceCount;
+    private final double[] faceWeights;   // normalized, index face - 1
+    private final int bonusValue;
+    private final boolean uniformSingleDie;
+    
+    private final int minRoll;
+    private final int maxRoll;
+    private final double[] rollProbability; // index roll - minRoll
+    private final double[] aliasThreshold;
+    private final int[] alias;
+    
+    private DieModel(int diceCount, double[] weights, int bonusValue) {
+        if (diceCount < 1 || weights.length < 2) {
+            throw new IllegalArgumentException("Need at least one die with at least two faces");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Face weights must be finite and non-negative");
+            }
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one face needs a positive weight");
+        }
+        this.diceCount = diceCount;
+        this.faceWeights = new double[weights.length];
+        boolean uniform = true;
+        for (int i = 0; i < weights.length; i++) {
+            faceWeights[i] = weights[i] / total;
+            uniform &= weights[i] == weights[0];
+        }
+        this.uniformSingleDie = uniform && diceCount == 1;
+        this.minRoll = diceCount;
+        this.maxRoll = diceCount * weights.length;
+        if (bonusValue != NO_BONUS && (bonusValue < minRoll || bonusValue > maxRoll)) {
+            throw new IllegalArgumentException("Bonus value " + bonusValue + " cannot be rolled");
+        }
+        this.bonusValue = bonusValue;
+        
+        this.rollProbability = sumDistribution(diceCount, faceWeights);
+        this.aliasThreshold = new double[rollProbability.length];
+        this.alias = new int[rollProbability.length];
+        buildAliasTable(rollProbability, aliasThreshold, alias);
+    }
+    
+    // Bonus on the highest total, like a six on one d6
+    public static DieModel fair(int diceCount, int faces) {
+        double[] weights = new double[faces];
+        Arrays.fill(weights, 1.0);
+        return new DieModel(diceCount, weights, diceCount * faces);
+    }
+    
+    public static DieModel weighted(double... faceWeights) {
+        return weighted(1, faceWeights);
+    }
+    
+    // Not varargs, so weighted(1, 1, 1, 1, 2, 3) still means one loaded die
+    public static DieModel weighted(int diceCount, double[] faceWeights) {
+        return new DieModel(diceCount, faceWeights.clone(), diceCount * faceWeights.length);
+    }
+    
+    // NO_BONUS turns extra rolls off
+    public DieModel withBonusValue(int value) {
+        return new DieModel(diceCount, faceWeights, value);
+    }
+    
+    // n-fold convolution of the per-die weights
+    private static double[] sumDistribution(int dice, double[] face) {
+        double[] current = {1.0}; // sum of zero dice
+        for (int d = 0; d < dice; d++) {
+            double[] next = new double[current.length + face.length - 1];
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == 0) continue;
+                for (int f = 0; f < face.length; f++) {
+                    next[i + f] += current[i] * face[f];
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+    
+    // Vose's alias method: every column holds at most two outcomes
+    private static void buildAliasTable(double[] probability, double[] threshold, int[] alias) {
+        int n = probability.length;
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = probability[i] * n;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Leftovers are 1.0 up to rounding
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            threshold[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            threshold[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+    
+    public int sample(Random random) {
+        if (uniformSingleDie) {
+            return random.nextInt(faceWeights.length) + 1;
+        }
+        int column = random.nextInt(aliasThreshold.length);
+        return minRoll + (random.nextDouble() < aliasThreshold[column] ? column : alias[column]);
+    }
+    
+    public int getDiceCount() {
+        return diceCount;
+    }
+    
+    public int getFaces() {
+        return faceWeights.length;
+    }
+    
+    public int getMinRoll() {
+        return minRoll;
+    }
+    
+    public int getMaxRoll() {
+        return maxRoll;
+    }
+    
+    public int getBonusValue() {
+        return bonusValue;
+    }
+    
+    public boolean isBonus(int roll) {
+        return bonusValue != NO_BONUS && roll == bonusValue;
+    }
+    
+    public boolean isUniformSingleDie() {
+        return uniformSingleDie;
+    }
+    
+    public double getProbability(int roll) {
+        if (roll < minRoll || roll > maxRoll) {
+            return 0;
+        }
+        return rollProbability[roll - minRoll];
+    }
+    
+    // Index 0 is the minimum roll
+    public double[] getSumDistribution() {
+        return rollProbability.clone();
+    }
+    
+    public double getExpectedRoll() {
+        double expected = 0;
+        for (int i = 0; i < rollProbability.length; i++) {
+            expected += (minRoll + i) * rollProbability[i];
+        }
+        return expected;
+    }
+    
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(diceCount);
+        out.writeShort(faceWeights.length);
+        for (double weight : faceWeights) {
+            out.writeDouble(weight);
+        }
+        out.writeShort(bonusValue);
+    }
+    
+    public static DieModel readFrom(DataInput in) throws IOException {
+        int dice = in.readByte();
+        double[] weights = new double[in.readUnsignedShort()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = in.readDouble();
+        }
+        return new DieModel(dice, weights, in.readShort());
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DieModel)) return false;
+        DieModel other = (DieModel) o;
+        return diceCount == other.diceCount && bonusValue == other.bonusValue
+            && Arrays.equals(faceWeights, other.faceWeights);
+    }
+    
+    @Override
+    public int hashCode() {
+        return (31 * diceCount + bonusValue) * 31 + Arrays.hashCode(faceWeights);
+    }
+    
+    @Override
+    public String toString() {
+        String dice = (diceCount > 1 ? String.valueOf(diceCount) : "") + "d" + faceWeights.length;
+        boolean fair = true;
+        for (double weight : faceWeights) {
+            fair &= weight == faceWeights[0];
+        }
+        return dice + (fair ? "" : " (weighted)")
+            + (bonusValue == NO_BONUS ? ", no bonus" : ", bonus on " + bonusValue);
+    }
+}
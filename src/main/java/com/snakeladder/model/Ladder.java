@@ -1,6 +1,6 @@
 package com.snakeladder.model;
 
-public class Ladder implements BoardEntity {
+public final class Ladder implements BoardEntity {
     private final int start;
     private final int end;
     
@@ -23,8 +23,8 @@ public class Ladder implements BoardEntity {
     }
     
     @Override
-    public String getType() {
-        return "LADDER";
+    public int getTypeCode() {
+        return LADDER;
     }
     
     @Override
@@ -0,0 +1,35 @@
+package com.snakeladder.model;
+
+// Ending a move here ends the turn and the player sits out their next one
+public final class LoseTurnCell implements BoardEntity {
+    private final int cell;
+    
+    public LoseTurnCell(int cell) {
+        this.cell = cell;
+    }
+    
+    @Override
+    public int getStartPosition() {
+        return cell;
+    }
+    
+    @Override
+    public int getEndPosition() {
+        return cell;
+    }
+    
+    @Override
+    public int getTypeCode() {
+        return LOSE_TURN;
+    }
+    
+    @Override
+    public int transform(int pos) {
+        return pos;
+    }
+    
+    @Override
+    public String toString() {
+        return "LoseTurnCell{cell=" + cell + "}";
+    }
+}
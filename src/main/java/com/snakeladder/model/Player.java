@@ -6,6 +6,7 @@ public class Player {
     private int currentPosition;
     private int consecutiveSixes;
     private boolean isActive;
+    private boolean skipsNextTurn;
     
     public Player(String name, String symbol) {
         this.name = name;
@@ -43,6 +44,18 @@ public class Player {
         this.consecutiveSixes = 0;
     }
     
+    public void setConsecutiveSixes(int consecutiveSixes) {
+        this.consecutiveSixes = consecutiveSixes;
+    }
+    
+    public boolean isSkippingNextTurn() {
+        return skipsNextTurn;
+    }
+    
+    public void setSkipsNextTurn(boolean skips) {
+        this.skipsNextTurn = skips;
+    }
+    
     public boolean isActive() {
         return isActive;
     }
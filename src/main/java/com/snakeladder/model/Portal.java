@@ -0,0 +1,40 @@
+package com.snakeladder.model;
+
+public final class Portal implements BoardEntity {
+    private final int entry;
+    private final int exit;
+    
+    // Unlike snakes and ladders a portal may lead either way
+    public Portal(int entry, int exit) {
+        if (entry == exit) {
+            throw new IllegalArgumentException("Portal must lead to a different cell");
+        }
+        this.entry = entry;
+        this.exit = exit;
+    }
+    
+    @Override
+    public int getStartPosition() {
+        return entry;
+    }
+    
+    @Override
+    public int getEndPosition() {
+        return exit;
+    }
+    
+    @Override
+    public int getTypeCode() {
+        return PORTAL;
+    }
+    
+    @Override
+    public int transform(int pos) {
+        return pos == entry ? exit : pos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Portal{entry=%d, exit=%d}", entry, exit);
+    }
+}
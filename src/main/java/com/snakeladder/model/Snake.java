@@ -1,6 +1,6 @@
 package com.snakeladder.model;
 
-public class Snake implements BoardEntity {
+public final class Snake implements BoardEntity {
     private final int headPos;
     private final int tailPos;
     
@@ -24,8 +24,8 @@ public class Snake implements BoardEntity {
     }
     
     @Override
-    public String getType() {
-        return "SNAKE";
+    public int getTypeCode() {
+        return SNAKE;
     }
     
     @Override
@@ -0,0 +1,72 @@
+package com.snakeladder.optimizer;
+
+import com.snakeladder.analysis.EditableBoard;
+import com.snakeladder.model.BoardEntity;
+
+/**
+ * Scores a candidate layout for the optimizer; lower is better and 0 means
+ * every goal is met. Objectives must only read the board. Goals combine
+ * with plus and weighted, for example
+ *
+ *   expectedTurns(40).plus(seatSpread(2, 0.02)).plus(minLongLadders(6, 20))
+ */
+@FunctionalInterface
+public interface BoardObjective {
+    double score(EditableBoard board);
+    
+    default BoardObjective plus(BoardObjective other) {
+        return board -> score(board) + other.score(board);
+    }
+    
+    default BoardObjective weighted(double weight) {
+        return board -> weight * score(board);
+    }
+    
+    // Relative distance of a single player's expected turns from the target
+    static BoardObjective expectedTurns(double target) {
+        return board -> Math.abs(board.getExpectedTurns() - target) / target;
+    }
+    
+    // How far the gap between the best and worst seat exceeds the limit, in
+    // units of the limit; uses the fast independent-players estimate
+    static BoardObjective seatSpread(int players, double maxSpread) {
+        return board -> {
+            double[] wins = board.estimateSeatWinRates(players);
+            double min = 1.0;
+            double max = 0.0;
+            for (double win : wins) {
+                min = Math.min(min, win);
+                max = Math.max(max, win);
+            }
+            return Math.max(0, (max - min) - maxSpread) / maxSpread;
+        };
+    }
+    
+    // Share of the required long ladders that are missing
+    static BoardObjective minLongLadders(int count, int minLength) {
+        return board -> {
+            int found = 0;
+            for (BoardEntity entity : board.getEntities()) {
+                if (entity.getTypeCode() == BoardEntity.LADDER
+                        && entity.getEndPosition() - entity.getStartPosition() >= minLength) {
+                    found++;
+                }
+            }
+            return found >= count ? 0 : (double) (count - found) / count;
+        };
+    }
+    
+    // Share of the required long snakes that are missing
+    static BoardObjective minLongSnakes(int count, int minLength) {
+        return board -> {
+            int found = 0;
+            for (BoardEntity entity : board.getEntities()) {
+                if (entity.getTypeCode() == BoardEntity.SNAKE
+                        && entity.getStartPosition() - entity.getEndPosition() >= minLength) {
+                    found++;
+                }
+            }
+            return found >= count ? 0 : (double) (count - found) / count;
+        };
+    }
+}
@@ -0,0 +1,300 @@
+package com.snakeladder.optimizer;
+
+import com.snakeladder.analysis.EditableBoard;
+import com.snakeladder.model.*;
+import com.snakeladder.util.Mix64;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Searches for a layout that meets an objective by simulated annealing.
+ * Several chains run in parallel, each at its own temperature on a
+ * geometric ladder, and after every round of steps neighbouring chains may
+ * swap layouts (replica exchange), so a good layout found by a hot chain
+ * can be refined by a cold one. Each step changes one snake or ladder and
+ * is scored on an EditableBoard, so only the affected part of the board is
+ * re-solved, and a rejected step is undone without solving again.
+ *
+ * Most steps move an existing entity; unless the counts are fixed, some
+ * add or remove one instead. Every chain has its own RNG derived from the
+ * seed and the exchanges run between rounds, so a given seed always gives
+ * the same result however the chains are scheduled.
+ *
+ * Chains run on the common fork-join pool unless a pool is supplied, so
+ * an optimization never starts or stops threads of its own.
+ */
+public class BoardOptimizer {
+    public static final int DEFAULT_CHAINS = 4;
+    public static final int DEFAULT_ROUNDS = 100;
+    public static final int DEFAULT_STEPS_PER_ROUND = 50;
+    public static final double DEFAULT_START_TEMPERATURE = 0.1;
+    public static final double DEFAULT_END_TEMPERATURE = 1e-4;
+    private static final double LADDER_RATIO = 2.0;
+    private static final int MAX_PROPOSAL_ATTEMPTS = 20;
+    // One step in this many adds or removes an entity instead of moving one
+    private static final int COUNT_CHANGE_ODDS = 8;
+    
+    private final BoardObjective objective;
+    private final DieModel die;
+    private final int chains;
+    private final int rounds;
+    private final int stepsPerRound;
+    private final double startTemperature;
+    private final double endTemperature;
+    private final boolean fixedCounts;
+    private final long seed;
+    private final ExecutorService pool;
+    
+    public BoardOptimizer(BoardObjective objective, long seed) {
+        this(objective, DieModel.STANDARD, DEFAULT_CHAINS, DEFAULT_ROUNDS, DEFAULT_STEPS_PER_ROUND,
+            DEFAULT_START_TEMPERATURE, DEFAULT_END_TEMPERATURE, false, seed);
+    }
+    
+    // With fixed counts the search only moves the starting layout's entities
+    public BoardOptimizer(BoardObjective objective, DieModel die, int chains, int rounds, int stepsPerRound,
+                          double startTemperature, double endTemperature, boolean fixedCounts, long seed) {
+        this(objective, die, chains, rounds, stepsPerRound, startTemperature, endTemperature, fixedCounts, seed,
+            ForkJoinPool.commonPool());
+    }
+    
+    // The pool is shared, not owned: it is never shut down here
+    public BoardOptimizer(BoardObjective objective, DieModel die, int chains, int rounds, int stepsPerRound,
+                          double startTemperature, double endTemperature, boolean fixedCounts, long seed,
+                          ExecutorService pool) {
+        if (chains < 1 || rounds < 1 || stepsPerRound < 1) {
+            throw new IllegalArgumentException("Chains, rounds and steps per round must be positive");
+        }
+        if (startTemperature <= 0 || endTemperature <= 0) {
+            throw new IllegalArgumentException("Temperatures must be positive");
+        }
+        this.objective = objective;
+        this.die = die;
+        this.chains = chains;
+        this.rounds = rounds;
+        this.stepsPerRound = stepsPerRound;
+        this.startTemperature = startTemperature;
+        this.endTemperature = endTemperature;
+        this.fixedCounts = fixedCounts;
+        this.seed = seed;
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+    
+    public OptimizationResult optimize(int size, List<BoardEntity> initial) {
+        List<Chain> runners = new ArrayList<>(chains);
+        for (int i = 0; i < chains; i++) {
+            runners.add(new Chain(i, new Layout(size, initial), new Random(Mix64.mix(seed + i * 0x9E3779B97F4A7C15L))));
+        }
+        Random exchangeRandom = new Random(Mix64.mix(seed - 1));
+        
+        double[] trace = new double[rounds + 1];
+        Layout best = runners.get(0).layout;
+        List<BoardEntity> bestEntities = best.board.getEntities();
+        double bestScore = best.score;
+        trace[0] = bestScore;
+        long exchanges = 0;
+        
+        try {
+            for (int round = 0; round < rounds; round++) {
+                double base = startTemperature * Math.pow(endTemperature / startTemperature,
+                    rounds == 1 ? 1 : (double) round / (rounds - 1));
+                List<Callable<Void>> tasks = new ArrayList<>(chains);
+                for (Chain chain : runners) {
+                    tasks.add(() -> {
+                        chain.run(base * Math.pow(LADDER_RATIO, chain.index));
+                        return null;
+                    });
+                }
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+                
+                for (Chain chain : runners) {
+                    if (chain.bestScore < bestScore) {
+                        bestScore = chain.bestScore;
+                        bestEntities = chain.bestEntities;
+                    }
+                }
+                trace[round + 1] = bestScore;
+                
+                // Neighbouring temperatures swap layouts with the Metropolis rule
+                for (int i = 0; i + 1 < chains; i++) {
+                    Chain colder = runners.get(i);
+                    Chain hotter = runners.get(i + 1);
+                    double coldTemperature = base * Math.pow(LADDER_RATIO, i);
+                    double hotTemperature = coldTemperature * LADDER_RATIO;
+                    double exponent = (colder.layout.score - hotter.layout.score)
+                        * (1 / coldTemperature - 1 / hotTemperature);
+                    if (exponent >= 0 || exchangeRandom.nextDouble() < Math.exp(exponent)) {
+                        Layout swap = colder.layout;
+                        colder.layout = hotter.layout;
+                        hotter.layout = swap;
+                        exchanges++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while optimizing board", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Optimizer chain failed", e.getCause());
+        }
+        
+        long evaluations = 0;
+        long accepted = 0;
+        for (Chain chain : runners) {
+            evaluations += chain.evaluations;
+            accepted += chain.accepted;
+        }
+        EditableBoard bestBoard = new EditableBoard(size, bestEntities, false, die);
+        return new OptimizationResult(bestBoard.toBoard(), bestScore, bestBoard.getExpectedTurns(), trace,
+            evaluations, accepted, exchanges);
+    }
+    
+    /** A layout under evaluation plus which cells its entities occupy. */
+    private class Layout {
+        final EditableBoard board;
+        final int[] occupied;
+        double score;
+        
+        Layout(int size, List<BoardEntity> entities) {
+            this.board = new EditableBoard(size, entities, false, die);
+            this.occupied = new int[board.getTotalCells() + 1];
+            for (BoardEntity entity : entities) {
+                occupied[entity.getStartPosition()]++;
+                occupied[entity.getEndPosition()]++;
+            }
+            this.score = objective.score(board);
+        }
+    }
+    
+    private class Chain {
+        final int index;
+        final Random random;
+        Layout layout;
+        double bestScore = Double.MAX_VALUE;
+        List<BoardEntity> bestEntities;
+        long evaluations;
+        long accepted;
+        
+        Chain(int index, Layout layout, Random random) {
+            this.index = index;
+            this.layout = layout;
+            this.random = random;
+        }
+        
+        void run(double temperature) {
+            if (layout.score < bestScore) {
+                bestScore = layout.score;
+                bestEntities = layout.board.getEntities();
+            }
+            List<BoardEntity> entities = layout.board.getEntities();
+            for (int step = 0; step < stepsPerRound; step++) {
+                boolean changeCount = !fixedCounts && (entities.isEmpty() || random.nextInt(COUNT_CHANGE_ODDS) == 0);
+                BoardEntity target = entities.isEmpty() ? null : entities.get(random.nextInt(entities.size()));
+                int[] cells;
+                if (!changeCount) {
+                    if (target == null || (cells = propose(target)) == null) {
+                        continue;
+                    }
+                    occupy(target.getStartPosition(), target.getEndPosition(), -1);
+                    occupy(cells[0], cells[1], 1);
+                    layout.board.moveEntity(target.getStartPosition(), cells[0], cells[1]);
+                } else if (target != null && random.nextBoolean()) {
+                    cells = null;
+                    occupy(target.getStartPosition(), target.getEndPosition(), -1);
+                    layout.board.removeEntity(target.getStartPosition());
+                } else {
+                    boolean snake = random.nextBoolean();
+                    if ((cells = proposeNew(snake)) == null) {
+                        continue;
+                    }
+                    occupy(cells[0], cells[1], 1);
+                    layout.board.addEntity(snake ? new Snake(cells[0], cells[1]) : new Ladder(cells[0], cells[1]));
+                    target = null;
+                }
+                
+                double score = objective.score(layout.board);
+                evaluations++;
+                double delta = score - layout.score;
+                if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                    layout.score = score;
+                    accepted++;
+                    entities = layout.board.getEntities();
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestEntities = entities;
+                    }
+                } else {
+                    layout.board.undo();
+                    if (cells != null) {
+                        occupy(cells[0], cells[1], -1);
+                    }
+                    if (target != null) {
+                        occupy(target.getStartPosition(), target.getEndPosition(), 1);
+                    }
+                }
+            }
+        }
+        
+        private void occupy(int start, int end, int delta) {
+            layout.occupied[start] += delta;
+            layout.occupied[end] += delta;
+        }
+        
+        // Two free cells, ordered to suit the type
+        private int[] proposeNew(boolean snake) {
+            int totalCells = layout.board.getTotalCells();
+            for (int attempt = 0; attempt < MAX_PROPOSAL_ATTEMPTS; attempt++) {
+                int a = 1 + random.nextInt(totalCells - 1);
+                int b = 1 + random.nextInt(totalCells - 1);
+                if (a != b && isFree(a, -1, -1) && isFree(b, -1, -1)) {
+                    int low = Math.min(a, b);
+                    int high = Math.max(a, b);
+                    return snake ? new int[] {high, low} : new int[] {low, high};
+                }
+            }
+            return null;
+        }
+        
+        // Nudges one end, or half the time relocates the whole entity, keeping its type
+        private int[] propose(BoardEntity entity) {
+            int totalCells = layout.board.getTotalCells();
+            int type = entity.getTypeCode();
+            int start = entity.getStartPosition();
+            int end = entity.getEndPosition();
+            int reach = Math.max(2, totalCells / 10);
+            for (int attempt = 0; attempt < MAX_PROPOSAL_ATTEMPTS; attempt++) {
+                int newStart = start;
+                int newEnd = end;
+                switch (random.nextInt(4)) {
+                    case 0:
+                        newStart = start + random.nextInt(2 * reach + 1) - reach;
+                        break;
+                    case 1:
+                        newEnd = end + random.nextInt(2 * reach + 1) - reach;
+                        break;
+                    default:
+                        newStart = 1 + random.nextInt(totalCells - 1);
+                        newEnd = 1 + random.nextInt(totalCells - 1);
+                        break;
+                }
+                if (isFree(newStart, start, end) && isFree(newEnd, start, end) && newStart != newEnd
+                        && (type != BoardEntity.SNAKE || newStart > newEnd)
+                        && (type != BoardEntity.LADDER || newStart < newEnd)
+                        && (newStart != start || newEnd != end)) {
+                    return new int[] {newStart, newEnd};
+                }
+            }
+            return null;
+        }
+        
+        // Inside the board and not used by another entity
+        private boolean isFree(int cell, int ownStart, int ownEnd) {
+            if (cell < 1 || cell >= layout.board.getTotalCells()) {
+                return false;
+            }
+            int own = (cell == ownStart ? 1 : 0) + (cell == ownEnd ? 1 : 0);
+            return layout.occupied[cell] - own == 0;
+        }
+    }
+}
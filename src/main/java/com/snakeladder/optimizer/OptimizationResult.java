@@ -0,0 +1,45 @@
+package com.snakeladder.optimizer;
+
+import com.snakeladder.model.Board;
+
+/**
+ * The best layout an optimizer run found, with the best score after each
+ * round (element 0 is the starting layout) and counters for the run.
+ */
+public class OptimizationResult {
+    private final Board board;
+    private final double score;
+    private final double expectedTurns;
+    private final double[] scoreTrace;
+    private final long evaluations;
+    private final long acceptedMoves;
+    private final long exchanges;
+    
+    OptimizationResult(Board board, double score, double expectedTurns, double[] scoreTrace,
+                       long evaluations, long acceptedMoves, long exchanges) {
+        this.board = board;
+        this.score = score;
+        this.expectedTurns = expectedTurns;
+        this.scoreTrace = scoreTrace;
+        this.evaluations = evaluations;
+        this.acceptedMoves = acceptedMoves;
+        this.exchanges = exchanges;
+    }
+    
+    public Board getBoard() { return board; }
+    public double getScore() { return score; }
+    public double getExpectedTurns() { return expectedTurns; }
+    public long getEvaluations() { return evaluations; }
+    public long getAcceptedMoves() { return acceptedMoves; }
+    public long getExchanges() { return exchanges; }
+    
+    public double[] getScoreTrace() {
+        return scoreTrace.clone();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("OptimizationResult{score=%.5f, expectedTurns=%.2f, evaluations=%d, accepted=%d, exchanges=%d}",
+            score, expectedTurns, evaluations, acceptedMoves, exchanges);
+    }
+}
@@ -0,0 +1,40 @@
+package com.snakeladder.rating;
+
+public class PlayerRating {
+    private final String name;
+    private final double rating;
+    private final long wins;
+    private final long losses;
+    
+    public PlayerRating(String name, double rating, long wins, long losses) {
+        this.name = name;
+        this.rating = rating;
+        this.wins = wins;
+        this.losses = losses;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public double getRating() {
+        return rating;
+    }
+    
+    public long getWins() {
+        return wins;
+    }
+    
+    public long getLosses() {
+        return losses;
+    }
+    
+    public long getGamesPlayed() {
+        return wins + losses;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %.1f (%d-%d)", name, rating, wins, losses);
+    }
+}
@@ -0,0 +1,234 @@
+package com.snakeladder.rating;
+
+import com.snakeladder.model.Player;
+import com.snakeladder.service.Game;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Elo-style ratings fed by finished games from many threads at once.
+ * Updates only lock the stripes of the players involved, the leaderboard is
+ * a skip list kept ordered as ratings change, and rank queries come from a
+ * Fenwick tree of rating buckets updated with atomic adds.
+ */
+public class RatingService {
+    public static final double INITIAL_RATING = 1500.0;
+    private static final double K_FACTOR = 32.0;
+    private static final double MIN_RATING = 0.0;
+    private static final double MAX_RATING = 4000.0;
+    private static final double BUCKET_WIDTH = 0.1;
+    private static final int STRIPES = 64;
+    
+    private final ConcurrentHashMap<String, Record> records = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> leaderboard = new ConcurrentSkipListSet<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final int bucketCount = (int) Math.ceil((MAX_RATING - MIN_RATING) / BUCKET_WIDTH) + 1;
+    private final AtomicLongArray rankTree = new AtomicLongArray(bucketCount + 1);
+    private final AtomicLong gamesRecorded = new AtomicLong();
+    
+    public RatingService() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+    
+    public void recordGame(Game game) {
+        if (!game.isGameEnded()) {
+            throw new IllegalArgumentException("Game has not finished yet");
+        }
+        List<String> losers = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            if (player != game.getWinner()) {
+                losers.add(player.getName());
+            }
+        }
+        recordResult(game.getWinner().getName(), losers);
+    }
+    
+    // The winner is scored as beating each loser. K is shared across the
+    // pairings, and each pairing moves the same points from loser to winner,
+    // so games of any size leave the rating pool's total unchanged
+    public void recordResult(String winnerName, List<String> loserNames) {
+        if (loserNames.isEmpty()) {
+            throw new IllegalArgumentException("A result needs at least one loser");
+        }
+        Record winner = recordFor(winnerName);
+        Record[] losers = new Record[loserNames.size()];
+        for (int i = 0; i < losers.length; i++) {
+            losers[i] = recordFor(loserNames.get(i));
+            if (losers[i] == winner) {
+                throw new IllegalArgumentException("Winner cannot also be a loser: " + winnerName);
+            }
+        }
+        
+        int[] lockOrder = stripesFor(winner, losers);
+        for (int stripe : lockOrder) {
+            stripes[stripe].lock();
+        }
+        try {
+            double winnerDelta = 0;
+            double[] loserDeltas = new double[losers.length];
+            double pairK = K_FACTOR / losers.length;
+            for (int i = 0; i < losers.length; i++) {
+                double expected = expectedScore(winner.rating, losers[i].rating);
+                winnerDelta += pairK * (1.0 - expected);
+                loserDeltas[i] = -pairK * (1.0 - expected);
+            }
+            
+            updateRating(winner, winner.rating + winnerDelta);
+            winner.wins.incrementAndGet();
+            for (int i = 0; i < losers.length; i++) {
+                updateRating(losers[i], losers[i].rating + loserDeltas[i]);
+                losers[i].losses.incrementAndGet();
+            }
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                stripes[lockOrder[i]].unlock();
+            }
+        }
+        gamesRecorded.incrementAndGet();
+    }
+    
+    public List<PlayerRating> getTopPlayers(int k) {
+        List<PlayerRating> top = new ArrayList<>(Math.min(k, 256));
+        for (Entry entry : leaderboard) {
+            if (top.size() >= k) {
+                break;
+            }
+            top.add(entry.record.snapshot(entry.rating));
+        }
+        return top;
+    }
+    
+    // 1-based; players within the same BUCKET_WIDTH of rating share a rank
+    public int getRank(String playerName) {
+        Record record = records.get(playerName);
+        if (record == null) {
+            throw new IllegalArgumentException("Unknown player: " + playerName);
+        }
+        int bucket = bucketOf(record.rating);
+        long higher = prefixCount(bucketCount) - prefixCount(bucket + 1);
+        return (int) higher + 1;
+    }
+    
+    public PlayerRating getRating(String playerName) {
+        Record record = records.get(playerName);
+        return record == null ? null : record.snapshot(record.rating);
+    }
+    
+    public int getPlayerCount() {
+        return records.size();
+    }
+    
+    public long getGamesRecorded() {
+        return gamesRecorded.get();
+    }
+    
+    private Record recordFor(String name) {
+        Record record = records.get(name);
+        if (record != null) {
+            return record;
+        }
+        // Creation goes through the name's stripe so a record is indexed exactly once
+        ReentrantLock lock = stripes[stripeOf(name)];
+        lock.lock();
+        try {
+            record = records.get(name);
+            if (record == null) {
+                record = new Record(name);
+                record.entry = new Entry(record, INITIAL_RATING);
+                leaderboard.add(record.entry);
+                addToBucket(bucketOf(INITIAL_RATING), 1);
+                records.put(name, record);
+            }
+            return record;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Caller holds the record's stripe lock
+    private void updateRating(Record record, double newRating) {
+        newRating = Math.max(MIN_RATING, Math.min(MAX_RATING, newRating));
+        leaderboard.remove(record.entry);
+        addToBucket(bucketOf(record.rating), -1);
+        record.rating = newRating;
+        record.entry = new Entry(record, newRating);
+        leaderboard.add(record.entry);
+        addToBucket(bucketOf(newRating), 1);
+    }
+    
+    private static double expectedScore(double rating, double opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10.0, (opponentRating - rating) / 400.0));
+    }
+    
+    private int stripeOf(String name) {
+        return (name.hashCode() & 0x7fffffff) % STRIPES;
+    }
+    
+    // Distinct stripes in ascending order so concurrent games never deadlock
+    private int[] stripesFor(Record winner, Record[] losers) {
+        int[] all = new int[losers.length + 1];
+        all[0] = stripeOf(winner.name);
+        for (int i = 0; i < losers.length; i++) {
+            all[i + 1] = stripeOf(losers[i].name);
+        }
+        return Arrays.stream(all).sorted().distinct().toArray();
+    }
+    
+    private int bucketOf(double rating) {
+        return (int) ((rating - MIN_RATING) / BUCKET_WIDTH);
+    }
+    
+    private void addToBucket(int bucket, long delta) {
+        for (int i = bucket + 1; i <= bucketCount; i += i & -i) {
+            rankTree.addAndGet(i, delta);
+        }
+    }
+    
+    // Number of players in buckets [0, bucket)
+    private long prefixCount(int bucket) {
+        long sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            sum += rankTree.get(i);
+        }
+        return sum;
+    }
+    
+    private static class Record {
+        final String name;
+        final AtomicLong wins = new AtomicLong();
+        final AtomicLong losses = new AtomicLong();
+        volatile double rating = INITIAL_RATING;
+        volatile Entry entry;
+        
+        Record(String name) {
+            this.name = name;
+        }
+        
+        PlayerRating snapshot(double rating) {
+            return new PlayerRating(name, rating, wins.get(), losses.get());
+        }
+    }
+    
+    // Immutable leaderboard key: highest rating first, then by name
+    private static class Entry implements Comparable<Entry> {
+        final Record record;
+        final double rating;
+        
+        Entry(Record record, double rating) {
+            this.record = record;
+            this.rating = rating;
+        }
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byRating = Double.compare(other.rating, rating);
+            return byRating != 0 ? byRating : record.name.compareTo(other.record.name);
+        }
+    }
+}
@@ -8,9 +8,12 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class Game {
-    private static final int CONSECUTIVE_SIX_LIMIT = 3;
+    public static final int CONSECUTIVE_SIX_LIMIT = 3;
     private static final String[] DEFAULT_SYMBOLS = {"🔵", "🔴", "🟢", "🟡", "🟣", "🟠"};
     
+    private static final int NO_SEAT = -1;
+    public static final int NO_CELL = -1;
+    
     private final Board board;
     private final List<Player> players;
     private final Dice dice;
@@ -18,30 +21,67 @@ public class Game {
     private boolean gameEnded;
     private Player winner;
     
+    // Active seats form an intrusive ring so rotation and removal are O(1)
+    // however many seats the game has
+    private final int[] nextSeat;
+    private final int[] previousSeat;
+    private int activeCount;
+    
+    // Seats standing on each cell, as intrusive lists, so a kill check
+    // does not scan every player
+    private final int[] cellHead;
+    private final int[] nextInCell;
+    private final int[] previousInCell;
+    
+    private GameListener[] listeners = new GameListener[0];
+    
+    // Where the last move landed before any snake or ladder, and whom it hit
+    private int lastLanding = NO_CELL;
+    private int lastKilledSeat = NO_SEAT;
+    
+    // Recent turns for undo and redo; null until enabled
+    private TurnHistory history;
+    
     public Game(int boardSize, GameLevel level, List<String> playerNames) {
-        BoardConfiguration config = new BoardConfigurationBuilder()
+        this(new BoardConfigurationBuilder()
             .withSize(boardSize)
             .withLevel(level)
             .withGeneratorType(BoardGeneratorFactory.getDefaultGeneratorType())
-            .build();
-        
-        this.board = new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy());
-        this.players = createPlayers(playerNames);
-        this.dice = new Dice();
-        this.currentPlayerIndex = 0;
-        this.gameEnded = false;
+            .build(), playerNames);
     }
     
     public Game(BoardConfiguration config, List<String> playerNames) {
-        this.board = new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy());
+        this(new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy(),
+            config.isChainTransforms()), playerNames, new Dice());
+    }
+    
+    public Game(Board board, List<String> playerNames, Dice dice) {
+        this.board = board;
         this.players = createPlayers(playerNames);
-        this.dice = new Dice();
+        this.dice = dice;
         this.currentPlayerIndex = 0;
         this.gameEnded = false;
+        
+        int seats = players.size();
+        this.nextSeat = new int[seats];
+        this.previousSeat = new int[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            nextSeat[seat] = (seat + 1) % seats;
+            previousSeat[seat] = (seat + seats - 1) % seats;
+        }
+        this.activeCount = seats;
+        
+        this.cellHead = new int[board.getTotalCells() + 1];
+        this.nextInCell = new int[seats];
+        this.previousInCell = new int[seats];
+        Arrays.fill(cellHead, NO_SEAT);
+        for (int seat = 0; seat < seats; seat++) {
+            linkToCell(seat, 0);
+        }
     }
     
     private List<Player> createPlayers(List<String> playerNames) {
-        List<Player> playerList = new ArrayList<>();
+        List<Player> playerList = new ArrayList<>(playerNames.size());
         for (int i = 0; i < playerNames.size(); i++) {
             String symbol = i < DEFAULT_SYMBOLS.length ? DEFAULT_SYMBOLS[i] : "P" + (i + 1);
             playerList.add(new Player(playerNames.get(i), symbol));
@@ -49,69 +89,235 @@ public class Game {
         return playerList;
     }
     
+    public void addListener(GameListener listener) {
+        GameListener[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+    
+    public void removeListener(GameListener listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                GameListener[] shrunk = new GameListener[listeners.length - 1];
+                System.arraycopy(listeners, 0, shrunk, 0, i);
+                System.arraycopy(listeners, i + 1, shrunk, i, shrunk.length - i);
+                listeners = shrunk;
+                return;
+            }
+        }
+    }
+    
+    // Keeps the last turns as small deltas so a moderator can roll them back
+    public void enableUndo(int turns) {
+        history = new TurnHistory(turns);
+    }
+    
     public GameResult playTurn() {
+        GameResult result;
+        if (history == null || gameEnded) {
+            result = resolveTurn();
+        } else {
+            int seat = currentPlayerIndex;
+            int activeBefore = activeCount;
+            Player mover = players.get(seat);
+            int fromCell = mover.getCurrentPosition();
+            int streakBefore = streakState(mover);
+            result = resolveTurn();
+            // Seats deactivated from outside were dropped during the turn; the
+            // ring cannot be rebuilt from a delta, so history starts over
+            if (activeCount != activeBefore) {
+                history.clear();
+            } else {
+                history.record(seat, fromCell, mover.getCurrentPosition(), lastKilledSeat, lastLanding,
+                    streakBefore, streakState(mover), currentPlayerIndex, gameEnded);
+            }
+        }
+        notifyListeners(result);
+        return result;
+    }
+    
+    private void notifyListeners(GameResult result) {
+        for (GameListener listener : listeners) {
+            listener.onTurn(this, result);
+        }
+    }
+    
+    private GameResult resolveTurn() {
         if (gameEnded) {
             return new GameResult(GameResultType.GAME_ENDED, winner, 0, "Game has already ended");
         }
         
+        // Players deactivated from outside since the last turn are dropped here
+        while (!getCurrentPlayer().isActive()) {
+            if (nextSeat[currentPlayerIndex] == currentPlayerIndex) {
+                throw new IllegalStateException("No active players left");
+            }
+            int next = nextSeat[currentPlayerIndex];
+            removeSeat(currentPlayerIndex);
+            currentPlayerIndex = next;
+        }
+        
         Player currentPlayer = getCurrentPlayer();
-        if (!currentPlayer.isActive()) {
+        if (currentPlayer.isSkippingNextTurn()) {
+            currentPlayer.setSkipsNextTurn(false);
+            lastLanding = NO_CELL;
+            lastKilledSeat = NO_SEAT;
             moveToNextPlayer();
-            return playTurn();
+            return moveResult(GameResultType.TURN_SKIPPED, currentPlayer, 0,
+                currentPlayer.getName() + " sits out this turn");
         }
         
         int diceRoll = dice.roll();
-        String moveDescription = processPlayerMove(currentPlayer, diceRoll);
+        String moveDescription = processPlayerMove(currentPlayerIndex, diceRoll);
         
         if (currentPlayer.hasWon(board.getTotalCells())) {
             gameEnded = true;
             winner = currentPlayer;
-            return new GameResult(GameResultType.PLAYER_WON, currentPlayer, diceRoll, moveDescription);
+            return moveResult(GameResultType.PLAYER_WON, currentPlayer, diceRoll, moveDescription);
         }
         
-        if (Dice.isSix(diceRoll)) {
+        // Cell effects apply where the move finally stopped
+        int stoppedOn = lastLanding == NO_CELL ? Board.NO_ENTITY
+            : board.getEntityTypeAt(currentPlayer.getCurrentPosition());
+        if (stoppedOn == BoardEntity.LOSE_TURN) {
+            currentPlayer.resetConsecutiveSixes();
+            currentPlayer.setSkipsNextTurn(true);
+            moveToNextPlayer();
+            return moveResult(GameResultType.TURN_COMPLETED, currentPlayer, diceRoll,
+                moveDescription + " - Loses the next turn!");
+        }
+        
+        if (dice.isBonus(diceRoll)) {
+            int bonus = dice.getModel().getBonusValue();
             currentPlayer.incrementConsecutiveSixes();
             if (currentPlayer.getConsecutiveSixes() >= CONSECUTIVE_SIX_LIMIT) {
                 currentPlayer.resetConsecutiveSixes();
                 moveToNextPlayer();
-                return new GameResult(GameResultType.TURN_REVOKED, currentPlayer, diceRoll, 
-                    moveDescription + " - Turn revoked due to three consecutive sixes!");
+                return moveResult(GameResultType.TURN_REVOKED, currentPlayer, diceRoll, 
+                    moveDescription + " - Turn revoked due to " + CONSECUTIVE_SIX_LIMIT + " consecutive "
+                        + bonus + "s!");
             }
-            return new GameResult(GameResultType.EXTRA_TURN, currentPlayer, diceRoll, 
-                moveDescription + " - Extra turn for rolling a six!");
+            return moveResult(GameResultType.EXTRA_TURN, currentPlayer, diceRoll, 
+                moveDescription + " - Extra turn for rolling a " + bonus + "!");
+        } else if (stoppedOn == BoardEntity.BOOSTER) {
+            currentPlayer.resetConsecutiveSixes();
+            return moveResult(GameResultType.EXTRA_TURN, currentPlayer, diceRoll,
+                moveDescription + " - Booster, roll again!");
         } else {
             currentPlayer.resetConsecutiveSixes();
             moveToNextPlayer();
-            return new GameResult(GameResultType.TURN_COMPLETED, currentPlayer, diceRoll, moveDescription);
+            return moveResult(GameResultType.TURN_COMPLETED, currentPlayer, diceRoll, moveDescription);
+        }
+    }
+    
+    // Six streak with a pending skip folded in, as GameSnapshot stores it
+    private static int streakState(Player player) {
+        return player.isSkippingNextTurn() ? GameSnapshot.SKIPS_NEXT_TURN : player.getConsecutiveSixes();
+    }
+    
+    private static void setStreakState(Player player, int streak) {
+        boolean skips = streak == GameSnapshot.SKIPS_NEXT_TURN;
+        player.setConsecutiveSixes(skips ? 0 : streak);
+        player.setSkipsNextTurn(skips);
+    }
+    
+    public boolean canUndo() {
+        return history != null && history.getUndoable() > 0;
+    }
+    
+    public boolean canRedo() {
+        return history != null && history.getRedoable() > 0;
+    }
+    
+    // Puts the board back as it was before the last turn; the dice are not
+    // rewound, so playing on rolls afresh while redo replays the same turn.
+    // Listeners get a TURN_UNDONE result so they can follow the rewind
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        int slot = history.undo();
+        int mover = history.mover(slot);
+        moveSeat(mover, history.fromCell(slot));
+        int killed = history.killedSeat(slot);
+        if (killed != NO_SEAT) {
+            moveSeat(killed, history.killedFromCell(slot));
+        }
+        setStreakState(players.get(mover), history.streakBefore(slot));
+        currentPlayerIndex = mover;
+        gameEnded = false;
+        winner = null;
+        notifyListeners(rewindResult(GameResultType.TURN_UNDONE, mover, killed));
+        return true;
+    }
+    
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
         }
+        int slot = history.redo();
+        int mover = history.mover(slot);
+        int killed = history.killedSeat(slot);
+        if (killed != NO_SEAT) {
+            moveSeat(killed, 0);
+        }
+        moveSeat(mover, history.toCell(slot));
+        setStreakState(players.get(mover), history.streakAfter(slot));
+        currentPlayerIndex = history.nextSeat(slot);
+        gameEnded = history.ended(slot);
+        winner = gameEnded ? players.get(mover) : null;
+        notifyListeners(rewindResult(GameResultType.TURN_REDONE, mover, killed));
+        return true;
+    }
+    
+    // No roll and no landing, so per-move statistics skip it; the final
+    // position is where the mover now stands
+    private GameResult rewindResult(GameResultType type, int mover, int killed) {
+        Player player = players.get(mover);
+        String description = String.format("%s %s's turn (now at %d)",
+            type == GameResultType.TURN_UNDONE ? "Undid" : "Replayed", player.getName(), player.getCurrentPosition());
+        if (killed != NO_SEAT) {
+            Player other = players.get(killed);
+            description += String.format("; %s is at %d", other.getName(), other.getCurrentPosition());
+        }
+        return new GameResult(type, player, 0, description, NO_CELL, player.getCurrentPosition(), NO_SEAT);
     }
     
-    private String processPlayerMove(Player player, int diceRoll) {
+    private GameResult moveResult(GameResultType type, Player player, int diceRoll, String description) {
+        return new GameResult(type, player, diceRoll, description,
+            lastLanding, player.getCurrentPosition(), lastKilledSeat);
+    }
+    
+    private String processPlayerMove(int seat, int diceRoll) {
+        Player player = players.get(seat);
         int oldPosition = player.getCurrentPosition();
         int newPosition = oldPosition + diceRoll;
+        lastLanding = NO_CELL;
+        lastKilledSeat = NO_SEAT;
         
         if (newPosition > board.getTotalCells()) {
             return String.format("%s rolled %d but can't move beyond the board (position %d)", 
                 player.getName(), diceRoll, oldPosition);
         }
         
-        Player targetPlayer = getPlayerAtPosition(newPosition);
+        lastLanding = newPosition;
+        int targetSeat = getSeatAtPosition(newPosition, seat);
+        lastKilledSeat = targetSeat;
         String killMessage = "";
-        if (targetPlayer != null && !targetPlayer.equals(player)) {
-            targetPlayer.setCurrentPosition(0); // Send back to start
+        if (targetSeat != NO_SEAT) {
+            Player targetPlayer = players.get(targetSeat);
+            moveSeat(targetSeat, 0); // Send back to start
             killMessage = String.format(" and killed %s (sent back to start)", targetPlayer.getName());
         }
         
-        player.setCurrentPosition(newPosition);
-        
         int transformedPosition = board.transformPosition(newPosition);
+        moveSeat(seat, transformedPosition);
         String transformMessage = "";
         if (transformedPosition != newPosition) {
-            player.setCurrentPosition(transformedPosition);
-            BoardEntity entity = board.getEntityAt(newPosition);
-            if (entity != null) {
+            int type = board.getEntityTypeAt(newPosition);
+            if (type != Board.NO_ENTITY) {
                 transformMessage = String.format(" -> %s from %d to %d", 
-                    entity.getType().toLowerCase(), newPosition, transformedPosition);
+                    BoardEntity.typeName(type), newPosition, transformedPosition);
             }
         }
         
@@ -119,18 +325,163 @@ public class Game {
             player.getName(), diceRoll, oldPosition, player.getCurrentPosition(), killMessage, transformMessage);
     }
     
-    private Player getPlayerAtPosition(int position) {
-        return players.stream()
-            .filter(Player::isActive)
-            .filter(p -> p.getCurrentPosition() == position)
-            .findFirst()
-            .orElse(null);
+    // Lowest active seat on the cell other than the mover, matching seat-order precedence
+    private int getSeatAtPosition(int position, int excludedSeat) {
+        int found = NO_SEAT;
+        for (int seat = cellHead[position]; seat != NO_SEAT; seat = nextInCell[seat]) {
+            if (seat != excludedSeat && players.get(seat).isActive() && (found == NO_SEAT || seat < found)) {
+                found = seat;
+            }
+        }
+        return found;
     }
     
     private void moveToNextPlayer() {
-        do {
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.size();
-        } while (!getCurrentPlayer().isActive() && !gameEnded);
+        currentPlayerIndex = nextSeat[currentPlayerIndex];
+        while (!getCurrentPlayer().isActive() && activeCount > 1) {
+            int next = nextSeat[currentPlayerIndex];
+            removeSeat(currentPlayerIndex);
+            currentPlayerIndex = next;
+        }
+    }
+    
+    public void eliminatePlayer(Player player) {
+        int seat = players.indexOf(player);
+        if (seat < 0) {
+            throw new IllegalArgumentException("Player is not part of this game: " + player.getName());
+        }
+        eliminatePlayer(seat);
+    }
+    
+    public void eliminatePlayer(int seat) {
+        Player player = players.get(seat);
+        if (!player.isActive() && previousSeat[seat] == NO_SEAT) {
+            return;
+        }
+        player.setActive(false);
+        if (history != null) {
+            history.clear();
+        }
+        int next = nextSeat[seat];
+        removeSeat(seat);
+        if (seat == currentPlayerIndex && next != seat) {
+            currentPlayerIndex = next;
+        }
+    }
+    
+    private void removeSeat(int seat) {
+        if (previousSeat[seat] == NO_SEAT) {
+            return;
+        }
+        nextSeat[previousSeat[seat]] = nextSeat[seat];
+        previousSeat[nextSeat[seat]] = previousSeat[seat];
+        previousSeat[seat] = NO_SEAT;
+        activeCount--;
+        unlinkFromCell(seat, players.get(seat).getCurrentPosition());
+    }
+    
+    private void moveSeat(int seat, int position) {
+        Player player = players.get(seat);
+        unlinkFromCell(seat, player.getCurrentPosition());
+        player.setCurrentPosition(position);
+        linkToCell(seat, position);
+    }
+    
+    private void linkToCell(int seat, int cell) {
+        int head = cellHead[cell];
+        nextInCell[seat] = head;
+        previousInCell[seat] = NO_SEAT;
+        if (head != NO_SEAT) {
+            previousInCell[head] = seat;
+        }
+        cellHead[cell] = seat;
+    }
+    
+    private void unlinkFromCell(int seat, int cell) {
+        int previous = previousInCell[seat];
+        int next = nextInCell[seat];
+        if (previous != NO_SEAT) {
+            nextInCell[previous] = next;
+        } else if (cellHead[cell] == seat) {
+            cellHead[cell] = next;
+        }
+        if (next != NO_SEAT) {
+            previousInCell[next] = previous;
+        }
+        nextInCell[seat] = NO_SEAT;
+        previousInCell[seat] = NO_SEAT;
+    }
+    
+    public GameSnapshot snapshot() {
+        int seats = players.size();
+        int[] positions = new int[seats];
+        int[] sixes = new int[seats];
+        boolean[] active = new boolean[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            Player player = players.get(seat);
+            positions[seat] = player.getCurrentPosition();
+            sixes[seat] = streakState(player);
+            active[seat] = player.isActive();
+        }
+        return new GameSnapshot(positions, sixes, active, currentPlayerIndex, gameEnded);
+    }
+    
+    // Rebuilds the seat ring and cell lists from scratch; a finished game's
+    // winner is the seat whose turn it was when it ended
+    public void restore(GameSnapshot snapshot) {
+        int seats = players.size();
+        if (snapshot.getPlayerCount() != seats) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.getPlayerCount()
+                + " seats but the game has " + seats);
+        }
+        
+        Arrays.fill(cellHead, NO_SEAT);
+        activeCount = 0;
+        int first = NO_SEAT;
+        int last = NO_SEAT;
+        for (int seat = 0; seat < seats; seat++) {
+            int position = snapshot.getPosition(seat);
+            if (position < 0 || position > board.getTotalCells()) {
+                throw new IllegalArgumentException("Position " + position + " is off the board");
+            }
+            Player player = players.get(seat);
+            player.setCurrentPosition(position);
+            setStreakState(player, snapshot.getConsecutiveSixes(seat));
+            player.setActive(snapshot.isActive(seat));
+            previousSeat[seat] = NO_SEAT;
+            if (!snapshot.isActive(seat)) {
+                continue;
+            }
+            if (first == NO_SEAT) {
+                first = seat;
+            } else {
+                nextSeat[last] = seat;
+                previousSeat[seat] = last;
+            }
+            last = seat;
+            activeCount++;
+            linkToCell(seat, position);
+        }
+        if (first != NO_SEAT) {
+            nextSeat[last] = first;
+            previousSeat[first] = last;
+        }
+        
+        // Inactive seats point at the next active seat so play can move on from them
+        for (int seat = seats - 1, following = first == NO_SEAT ? NO_SEAT : first; seat >= 0; seat--) {
+            if (snapshot.isActive(seat)) {
+                following = seat;
+            } else {
+                nextSeat[seat] = following == NO_SEAT ? seat : following;
+            }
+        }
+        
+        currentPlayerIndex = snapshot.getCurrentPlayerIndex();
+        gameEnded = snapshot.isGameEnded();
+        if (history != null) {
+            history.clear();
+        }
+        winner = gameEnded ? players.get(currentPlayerIndex) : null;
     }
     
     public Player getCurrentPlayer() {
@@ -141,6 +492,10 @@ public class Game {
         return new ArrayList<>(players);
     }
     
+    public int getActivePlayerCount() {
+        return activeCount;
+    }
+    
     public List<Player> getActivePlayers() {
         return players.stream()
             .filter(Player::isActive)
@@ -151,6 +506,10 @@ public class Game {
         return board;
     }
     
+    public Dice getDice() {
+        return dice;
+    }
+    
     public boolean isGameEnded() {
         return gameEnded;
     }
@@ -164,18 +523,36 @@ public class Game {
         private final Player player;
         private final int diceRoll;
         private final String description;
+        private final int landingPosition;
+        private final int finalPosition;
+        private final int killedSeat;
         
         public GameResult(GameResultType type, Player player, int diceRoll, String description) {
+            this(type, player, diceRoll, description, NO_CELL, NO_CELL, NO_SEAT);
+        }
+        
+        // Landing is the cell the roll reached before any snake or ladder,
+        // NO_CELL when the player did not move
+        public GameResult(GameResultType type, Player player, int diceRoll, String description,
+                          int landingPosition, int finalPosition, int killedSeat) {
             this.type = type;
             this.player = player;
             this.diceRoll = diceRoll;
             this.description = description;
+            this.landingPosition = landingPosition;
+            this.finalPosition = finalPosition;
+            this.killedSeat = killedSeat;
         }
         
         public GameResultType getType() { return type; }
         public Player getPlayer() { return player; }
         public int getDiceRoll() { return diceRoll; }
         public String getDescription() { return description; }
+        public int getLandingPosition() { return landingPosition; }
+        public int getFinalPosition() { return finalPosition; }
+        public int getKilledSeat() { return killedSeat; }
+        public boolean hasMoved() { return landingPosition != NO_CELL; }
+        public boolean hasKilled() { return killedSeat != NO_SEAT; }
     }
     
     public enum GameResultType {
@@ -183,7 +560,11 @@ public class Game {
         EXTRA_TURN,
         TURN_REVOKED,
         PLAYER_WON,
-        GAME_ENDED
+        GAME_ENDED,
+        // Appended so the ordinals other components encode stay put
+        TURN_SKIPPED,
+        TURN_UNDONE,
+        TURN_REDONE
     }
 }
 
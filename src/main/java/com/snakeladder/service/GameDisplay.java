@@ -1,13 +1,17 @@
 package com.snakeladder.service;
 
+import com.snakeladder.analysis.CellHeatmap;
 import com.snakeladder.model.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class GameDisplay {
     private static final String EMPTY_CELL = "   ";
-    private static final String SNAKE_SYMBOL = " 🐍";
-    private static final String LADDER_SYMBOL = " 🪜";
+    // Indexed by BoardEntity type code
+    private static final String[] ENTITY_SYMBOLS = {"🐍", "🪜", "🌀", "🚀", "💤"};
+    private static final String[] ENTITY_HEADINGS = {"SNAKES", "LADDERS", "PORTALS", "BOOSTERS", "LOSE-A-TURN CELLS"};
+    private static final String[] HEAT_MARKERS = {" S", " L", " P", " B", " X"};
+    private static final char[] HEAT_SHADES = {' ', '░', '▒', '▓', '█'};
     
     public void displayBoard(Game game) {
         Board board = game.getBoard();
@@ -69,13 +73,9 @@ public class GameDisplay {
                 .collect(Collectors.joining("")));
         }
         
-        BoardEntity entity = board.getEntityAt(cellNumber);
-        if (entity != null) {
-            if ("SNAKE".equals(entity.getType())) {
-                content.append(SNAKE_SYMBOL);
-            } else if ("LADDER".equals(entity.getType())) {
-                content.append(LADDER_SYMBOL);
-            }
+        int type = board.getEntityTypeAt(cellNumber);
+        if (type != Board.NO_ENTITY) {
+            content.append(' ').append(ENTITY_SYMBOLS[type]);
         }
         
         String result = content.toString();
@@ -117,25 +117,27 @@ public class GameDisplay {
         System.out.println("-".repeat(50));
         
         List<BoardEntity> entities = board.getAllEntities();
-        Map<String, List<BoardEntity>> groupedEntities = entities.stream()
-            .collect(Collectors.groupingBy(BoardEntity::getType));
-        
-        for (Map.Entry<String, List<BoardEntity>> entry : groupedEntities.entrySet()) {
-            System.out.println(entry.getKey() + "S:");
-            entry.getValue().forEach(entity -> {
-                String symbol = "SNAKE".equals(entity.getType()) ? "🐍" : "🪜";
-                System.out.printf("  %s %d → %d%n", symbol, entity.getStartPosition(), entity.getEndPosition());
-            });
+        Map<Integer, List<BoardEntity>> groupedEntities = entities.stream()
+            .collect(Collectors.groupingBy(BoardEntity::getTypeCode, TreeMap::new, Collectors.toList()));
+        
+        for (Map.Entry<Integer, List<BoardEntity>> entry : groupedEntities.entrySet()) {
+            int type = entry.getKey();
+            System.out.println(ENTITY_HEADINGS[type] + ":");
+            entry.getValue().forEach(entity -> System.out.println("  " + describeEntity(entity)));
         }
     }
     
     public void displayGameResult(Game.GameResult result) {
+        displayGameResult(result.getType(), result.getPlayer(), result.getDescription());
+    }
+    
+    public void displayGameResult(Game.GameResultType type, Player player, String description) {
         System.out.println("\n" + "=".repeat(60));
         
-        switch (result.getType()) {
+        switch (type) {
             case PLAYER_WON:
                 System.out.println("🎉 GAME OVER! 🎉");
-                System.out.println("🏆 Winner: " + result.getPlayer().getName() + " " + result.getPlayer().getSymbol());
+                System.out.println("🏆 Winner: " + player.getName() + " " + player.getSymbol());
                 break;
             case EXTRA_TURN:
                 System.out.println("🎲 Extra Turn!");
@@ -149,10 +151,82 @@ public class GameDisplay {
             case GAME_ENDED:
                 System.out.println("🏁 Game Already Ended");
                 break;
+            case TURN_SKIPPED:
+                System.out.println("💤 Turn Skipped");
+                break;
+            case TURN_UNDONE:
+                System.out.println("↩️ Turn Undone");
+                break;
+            case TURN_REDONE:
+                System.out.println("↪️ Turn Redone");
+                break;
         }
         
-        System.out.println("📝 " + result.getDescription());
+        System.out.println("📝 " + description);
         System.out.println("=".repeat(60));
     }
+    
+    // Same grid as displayBoard, with each cell's share of landings and a
+    // shade scaled to the busiest cell, followed by how often each entity fired
+    public void displayHeatmap(Board board, CellHeatmap heatmap) {
+        int size = board.getSize();
+        long maxLandings = heatmap.getMaxLandings();
+        
+        System.out.println("\n" + "=".repeat(size * 8) + "=");
+        System.out.printf("🔥 LANDING HEATMAP (%d games, %d moves) 🔥%n", heatmap.getGames(), heatmap.getMoves());
+        System.out.println("=".repeat(size * 8) + "=");
+        
+        for (int row = size - 1; row >= 0; row--) {
+            StringBuilder topLine = new StringBuilder("|");
+            StringBuilder middleLine = new StringBuilder("|");
+            StringBuilder bottomLine = new StringBuilder("|");
+            for (int col = 0; col < size; col++) {
+                int cellNumber = calculateCellNumber(row, col, size);
+                int type = board.getEntityTypeAt(cellNumber);
+                String marker = type == Board.NO_ENTITY ? "  " : HEAT_MARKERS[type];
+                topLine.append(String.format(" %2d%s  ", cellNumber, marker)).append("|");
+                middleLine.append(String.format("%5.1f%% ", heatmap.getLandingShare(cellNumber) * 100)).append("|");
+                bottomLine.append(String.valueOf(heatShade(heatmap.getLandings(cellNumber), maxLandings)).repeat(7))
+                    .append("|");
+            }
+            System.out.println(topLine.toString());
+            System.out.println(middleLine.toString());
+            System.out.println(bottomLine.toString());
+            if (row > 0) {
+                System.out.println("+" + "-".repeat(size * 8 - 1) + "+");
+            }
+        }
+        System.out.println("=".repeat(size * 8) + "=");
+        
+        System.out.println("\n🎯 ENTITY ACTIVITY:");
+        System.out.println("-".repeat(50));
+        for (BoardEntity entity : board.getAllEntities()) {
+            int start = entity.getStartPosition();
+            if (start == entity.getEndPosition()) {
+                // Boosters and lose-a-turn cells act on landing rather than moving anyone
+                System.out.printf("  %s: landed on %d times, %d kills on the cell%n",
+                    describeEntity(entity), heatmap.getLandings(start), heatmap.getKills(start));
+            } else {
+                System.out.printf("  %s: fired %d times (%.2f per game), %d kills on the cell%n",
+                    describeEntity(entity), heatmap.getTransforms(start),
+                    heatmap.getTransformsPerGame(start), heatmap.getKills(start));
+            }
+        }
+    }
+    
+    private static String describeEntity(BoardEntity entity) {
+        String symbol = ENTITY_SYMBOLS[entity.getTypeCode()];
+        if (entity.getStartPosition() == entity.getEndPosition()) {
+            return symbol + " " + entity.getStartPosition();
+        }
+        return String.format("%s %d → %d", symbol, entity.getStartPosition(), entity.getEndPosition());
+    }
+    
+    private static char heatShade(long landings, long maxLandings) {
+        if (landings == 0 || maxLandings == 0) {
+            return HEAT_SHADES[0];
+        }
+        int level = (int) Math.ceil((double) landings * (HEAT_SHADES.length - 1) / maxLandings);
+        return HEAT_SHADES[Math.min(level, HEAT_SHADES.length - 1)];
+    }
 }
-
@@ -0,0 +1,10 @@
+package com.snakeladder.service;
+
+/**
+ * Called on the game's own thread after every turn, and after every undo or
+ * redo with a TURN_UNDONE or TURN_REDONE result. Implementations should
+ * hand the result off quickly; anything slow belongs on another thread.
+ */
+public interface GameListener {
+    void onTurn(Game game, Game.GameResult result);
+}
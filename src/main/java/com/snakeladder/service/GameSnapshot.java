@@ -0,0 +1,87 @@
+package com.snakeladder.service;
+
+import java.util.Arrays;
+
+/**
+ * The mutable part of a game in primitive form: per-seat positions, six
+ * streaks and active flags, whose turn it is, and whether the game is over.
+ * Player names and the board are not included; a game is rebuilt from its
+ * board and names and then restored from the snapshot. A seat that has to
+ * sit out its next turn has no streak, so its streak is SKIPS_NEXT_TURN.
+ */
+public class GameSnapshot {
+    public static final int SKIPS_NEXT_TURN = -1;
+    
+    private final int[] positions;
+    private final int[] consecutiveSixes;
+    private final boolean[] active;
+    private final int currentPlayerIndex;
+    private final boolean gameEnded;
+    
+    public GameSnapshot(int[] positions, int[] consecutiveSixes, boolean[] active,
+                        int currentPlayerIndex, boolean gameEnded) {
+        if (positions.length != consecutiveSixes.length || positions.length != active.length) {
+            throw new IllegalArgumentException("Per-seat arrays must have the same length");
+        }
+        if (currentPlayerIndex < 0 || currentPlayerIndex >= positions.length) {
+            throw new IllegalArgumentException("Current player index out of range: " + currentPlayerIndex);
+        }
+        this.positions = positions.clone();
+        this.consecutiveSixes = consecutiveSixes.clone();
+        this.active = active.clone();
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.gameEnded = gameEnded;
+    }
+    
+    public int getPlayerCount() {
+        return positions.length;
+    }
+    
+    public int getPosition(int seat) {
+        return positions[seat];
+    }
+    
+    public int getConsecutiveSixes(int seat) {
+        return consecutiveSixes[seat];
+    }
+    
+    public boolean isActive(int seat) {
+        return active[seat];
+    }
+    
+    public int getCurrentPlayerIndex() {
+        return currentPlayerIndex;
+    }
+    
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GameSnapshot)) return false;
+        GameSnapshot other = (GameSnapshot) o;
+        return currentPlayerIndex == other.currentPlayerIndex
+            && gameEnded == other.gameEnded
+            && Arrays.equals(positions, other.positions)
+            && Arrays.equals(consecutiveSixes, other.consecutiveSixes)
+            && Arrays.equals(active, other.active);
+    }
+    
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(positions);
+        result = 31 * result + Arrays.hashCode(consecutiveSixes);
+        result = 31 * result + Arrays.hashCode(active);
+        result = 31 * result + currentPlayerIndex;
+        return 31 * result + (gameEnded ? 1 : 0);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("GameSnapshot{positions=%s, sixes=%s, active=%s, current=%d, ended=%s}",
+            Arrays.toString(positions), Arrays.toString(consecutiveSixes), Arrays.toString(active),
+            currentPlayerIndex, gameEnded);
+    }
+}
@@ -0,0 +1,106 @@
+package com.snakeladder.service;
+
+/**
+ * The last N turns of a game as deltas in parallel primitive arrays used
+ * as a ring, so recording, undoing and redoing a turn never allocates.
+ * Turns before the cursor can be undone and turns after it redone;
+ * recording a new turn drops the redo side, and once the ring is full the
+ * oldest turn falls off.
+ *
+ * Streaks use the GameSnapshot encoding, so a pending skip is
+ * SKIPS_NEXT_TURN.
+ */
+final class TurnHistory {
+    private final int capacity;
+    private final int[] movers;
+    private final int[] fromCells;
+    private final int[] toCells;
+    private final int[] killedSeats;
+    private final int[] killedFromCells;
+    private final int[] nextSeats;
+    private final byte[] streaksBefore;
+    private final byte[] streaksAfter;
+    private final boolean[] ended;
+    
+    private int oldest;    // slot of the oldest recorded turn
+    private int undoable;  // turns from oldest up to the cursor
+    private int redoable;  // turns after the cursor
+    
+    TurnHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("History capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.movers = new int[capacity];
+        this.fromCells = new int[capacity];
+        this.toCells = new int[capacity];
+        this.killedSeats = new int[capacity];
+        this.killedFromCells = new int[capacity];
+        this.nextSeats = new int[capacity];
+        this.streaksBefore = new byte[capacity];
+        this.streaksAfter = new byte[capacity];
+        this.ended = new boolean[capacity];
+    }
+    
+    void record(int mover, int fromCell, int toCell, int killedSeat, int killedFromCell,
+                int streakBefore, int streakAfter, int nextSeat, boolean gameEnded) {
+        int slot;
+        if (undoable == capacity) {
+            slot = oldest;
+            oldest = (oldest + 1) % capacity;
+        } else {
+            slot = (oldest + undoable) % capacity;
+            undoable++;
+        }
+        redoable = 0;
+        movers[slot] = mover;
+        fromCells[slot] = fromCell;
+        toCells[slot] = toCell;
+        killedSeats[slot] = killedSeat;
+        killedFromCells[slot] = killedFromCell;
+        streaksBefore[slot] = (byte) streakBefore;
+        streaksAfter[slot] = (byte) streakAfter;
+        nextSeats[slot] = nextSeat;
+        ended[slot] = gameEnded;
+    }
+    
+    // Moves the cursor back one turn and returns that turn's slot
+    int undo() {
+        if (undoable == 0) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        undoable--;
+        redoable++;
+        return (oldest + undoable) % capacity;
+    }
+    
+    // Moves the cursor forward one turn and returns that turn's slot
+    int redo() {
+        if (redoable == 0) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        int slot = (oldest + undoable) % capacity;
+        undoable++;
+        redoable--;
+        return slot;
+    }
+    
+    void clear() {
+        oldest = 0;
+        undoable = 0;
+        redoable = 0;
+    }
+    
+    int getUndoable() { return undoable; }
+    int getRedoable() { return redoable; }
+    
+    int mover(int slot) { return movers[slot]; }
+    int fromCell(int slot) { return fromCells[slot]; }
+    int toCell(int slot) { return toCells[slot]; }
+    int killedSeat(int slot) { return killedSeats[slot]; }
+    int killedFromCell(int slot) { return killedFromCells[slot]; }
+    int streakBefore(int slot) { return streaksBefore[slot]; }
+    int streakAfter(int slot) { return streaksAfter[slot]; }
+    int nextSeat(int slot) { return nextSeats[slot]; }
+    boolean ended(int slot) { return ended[slot]; }
+}
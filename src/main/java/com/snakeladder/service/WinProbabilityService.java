@@ -0,0 +1,109 @@
+package com.snakeladder.service;
+
+import com.snakeladder.analysis.TurnDistributionTable;
+import com.snakeladder.model.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live win probabilities for spectator overlays. The expensive part, the
+ * turns-to-finish table, is built once per Board and die model and shared
+ * by every game played with them; each query only combines the players'
+ * distributions.
+ */
+public class WinProbabilityService {
+    private final Map<Board, Map<DieModel, TurnDistributionTable>> tables =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    public TurnDistributionTable getTable(Board board) {
+        return getTable(board, DieModel.STANDARD);
+    }
+    
+    public TurnDistributionTable getTable(Board board, DieModel die) {
+        Map<DieModel, TurnDistributionTable> byDie = tables.computeIfAbsent(board, b -> new ConcurrentHashMap<>());
+        TurnDistributionTable table = byDie.get(die);
+        if (table == null) {
+            // Built outside any lock; a racing duplicate is simply discarded
+            TurnDistributionTable built = new TurnDistributionTable(board, die);
+            table = byDie.putIfAbsent(die, built);
+            if (table == null) {
+                table = built;
+            }
+        }
+        return table;
+    }
+    
+    public double[] getWinProbabilities(Game game) {
+        List<Player> players = game.getPlayers();
+        double[] probabilities = new double[players.size()];
+        
+        if (game.isGameEnded()) {
+            probabilities[players.indexOf(game.getWinner())] = 1.0;
+            return probabilities;
+        }
+        
+        TurnDistributionTable table = getTable(game.getBoard(), game.getDice().getModel());
+        
+        // Seats in the order they will next move, starting with the current player
+        int current = players.indexOf(game.getCurrentPlayer());
+        int[] order = new int[players.size()];
+        int active = 0;
+        for (int i = 0; i < players.size(); i++) {
+            int seat = (current + i) % players.size();
+            if (players.get(seat).isActive()) {
+                order[active++] = seat;
+            }
+        }
+        
+        double[] winByOrder = combine(table, players, order, active);
+        double total = 0;
+        for (int i = 0; i < active; i++) {
+            total += winByOrder[i];
+        }
+        for (int i = 0; i < active; i++) {
+            probabilities[order[i]] = total > 0 ? winByOrder[i] / total : 0;
+        }
+        return probabilities;
+    }
+    
+    // Player m wins on their k-th turn if everyone ahead of them has survived
+    // k turns and everyone behind them has survived k - 1 turns.
+    private double[] combine(TurnDistributionTable table, List<Player> players, int[] order, int active) {
+        int horizon = table.getHorizon();
+        int[] cells = new int[active];
+        int[] streaks = new int[active];
+        double[] survivalBefore = new double[active];
+        double[] survivalAfter = new double[active];
+        double[] finishNow = new double[active];
+        double[] suffix = new double[active + 1];
+        double[] wins = new double[active];
+        
+        for (int i = 0; i < active; i++) {
+            Player player = players.get(order[i]);
+            cells[i] = player.getCurrentPosition();
+            streaks[i] = i == 0 ? player.getConsecutiveSixes() : 0;
+            survivalBefore[i] = 1.0;
+        }
+        
+        for (int turn = 1; turn <= horizon; turn++) {
+            for (int i = 0; i < active; i++) {
+                finishNow[i] = table.finishProbability(cells[i], streaks[i], turn);
+                survivalAfter[i] = survivalBefore[i] - finishNow[i];
+            }
+            
+            suffix[active] = 1.0;
+            for (int i = active - 1; i >= 0; i--) {
+                suffix[i] = suffix[i + 1] * survivalBefore[i];
+            }
+            
+            double prefix = 1.0;
+            for (int i = 0; i < active; i++) {
+                wins[i] += finishNow[i] * prefix * suffix[i + 1];
+                prefix *= survivalAfter[i];
+            }
+            
+            System.arraycopy(survivalAfter, 0, survivalBefore, 0, active);
+        }
+        return wins;
+    }
+}
@@ -0,0 +1,38 @@
+package com.snakeladder.session;
+
+import com.snakeladder.model.Board;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out small integer ids for boards so that many parked sessions can
+ * share one on-heap Board and refer to it by id. Boards stay registered
+ * for the life of the registry.
+ */
+public class BoardRegistry {
+    private final Map<Board, Integer> ids = new IdentityHashMap<>();
+    private final List<Board> boards = new ArrayList<>();
+    
+    public synchronized int register(Board board) {
+        Integer id = ids.get(board);
+        if (id == null) {
+            id = boards.size();
+            boards.add(board);
+            ids.put(board, id);
+        }
+        return id;
+    }
+    
+    public synchronized Board get(int id) {
+        if (id < 0 || id >= boards.size()) {
+            throw new IllegalArgumentException("Unknown board id: " + id);
+        }
+        return boards.get(id);
+    }
+    
+    public synchronized int size() {
+        return boards.size();
+    }
+}
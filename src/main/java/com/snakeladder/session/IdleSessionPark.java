@@ -0,0 +1,251 @@
+package com.snakeladder.session;
+
+import com.snakeladder.model.Board;
+import com.snakeladder.model.Dice;
+import com.snakeladder.service.Game;
+import com.snakeladder.service.GameSnapshot;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps idle sessions off the Java heap. Parking a game reduces it to a
+ * 32-byte record in a direct buffer holding the session id, a board id
+ * from the BoardRegistry, per-seat positions and six streaks, the active
+ * seats and whose turn it is. The Game, its Players and Dice become
+ * garbage right away; unparking rebuilds them on the shared Board.
+ *
+ * The session index is an open-addressing table of primitive arrays, so
+ * the collector has no per-session objects to trace or copy.
+ *
+ *   0  session id (8)      8  board id (4)
+ *   12 player count (1)    13 current seat (1)
+ *   14 active mask (1)     15 flags (1)
+ *   16 positions (2 x 6)   28 six streaks, 2 bits per seat (2)
+ */
+public class IdleSessionPark {
+    public static final int RECORD_SIZE = 32;
+    public static final int MAX_PLAYERS = 6;
+    
+    private static final int RECORDS_PER_CHUNK = 1 << 20;
+    private static final int FLAG_ENDED = 1;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int INITIAL_TABLE_SIZE = 1 << 10;
+    
+    private final BoardRegistry boards;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotHighWater;
+    
+    // Session id -> slot, linear probing with backward-shift deletion
+    private long[] keys = newKeyTable(INITIAL_TABLE_SIZE);
+    private int[] values = new int[INITIAL_TABLE_SIZE];
+    private int size;
+    
+    public IdleSessionPark(BoardRegistry boards) {
+        this.boards = boards;
+    }
+    
+    public synchronized void park(long sessionId, Game game) {
+        if (sessionId == EMPTY_KEY) {
+            throw new IllegalArgumentException("Session id " + sessionId + " is reserved");
+        }
+        GameSnapshot snapshot = game.snapshot();
+        int players = snapshot.getPlayerCount();
+        if (players > MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + MAX_PLAYERS + " players can be parked");
+        }
+        int boardId = boards.register(game.getBoard());
+        
+        int slot = find(sessionId);
+        if (slot < 0) {
+            slot = allocateSlot();
+            insert(sessionId, slot);
+        }
+        ByteBuffer chunk = chunkFor(slot);
+        int offset = offsetOf(slot);
+        int activeMask = 0;
+        int sixes = 0;
+        for (int seat = 0; seat < players; seat++) {
+            if (snapshot.isActive(seat)) {
+                activeMask |= 1 << seat;
+            }
+            // Live streaks stay below the limit of 3, which leaves 3 free for a pending skip
+            sixes |= (snapshot.getConsecutiveSixes(seat) & 3) << (seat * 2);
+            chunk.putShort(offset + 16 + seat * 2, (short) snapshot.getPosition(seat));
+        }
+        chunk.putLong(offset, sessionId);
+        chunk.putInt(offset + 8, boardId);
+        chunk.put(offset + 12, (byte) players);
+        chunk.put(offset + 13, (byte) snapshot.getCurrentPlayerIndex());
+        chunk.put(offset + 14, (byte) activeMask);
+        chunk.put(offset + 15, (byte) (snapshot.isGameEnded() ? FLAG_ENDED : 0));
+        chunk.putShort(offset + 28, (short) sixes);
+    }
+    
+    public Game unpark(long sessionId) {
+        return unpark(sessionId, null, new Dice());
+    }
+    
+    // Names are not kept off-heap; null gives "Player 1", "Player 2", ...
+    public synchronized Game unpark(long sessionId, List<String> playerNames, Dice dice) {
+        int slot = find(sessionId);
+        if (slot < 0) {
+            return null;
+        }
+        ByteBuffer chunk = chunkFor(slot);
+        int offset = offsetOf(slot);
+        Board board = boards.get(chunk.getInt(offset + 8));
+        GameSnapshot snapshot = readSnapshot(chunk, offset);
+        
+        List<String> names = playerNames;
+        if (names == null) {
+            names = new ArrayList<>(snapshot.getPlayerCount());
+            for (int seat = 0; seat < snapshot.getPlayerCount(); seat++) {
+                names.add("Player " + (seat + 1));
+            }
+        } else if (names.size() != snapshot.getPlayerCount()) {
+            throw new IllegalArgumentException("Session has " + snapshot.getPlayerCount() + " players, got "
+                + names.size() + " names");
+        }
+        Game game = new Game(board, names, dice);
+        game.restore(snapshot);
+        
+        remove(sessionId);
+        releaseSlot(slot);
+        return game;
+    }
+    
+    public synchronized GameSnapshot peek(long sessionId) {
+        int slot = find(sessionId);
+        return slot < 0 ? null : readSnapshot(chunkFor(slot), offsetOf(slot));
+    }
+    
+    public synchronized boolean isParked(long sessionId) {
+        return find(sessionId) >= 0;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    public synchronized long getOffHeapBytes() {
+        return (long) chunks.size() * RECORDS_PER_CHUNK * RECORD_SIZE;
+    }
+    
+    private static GameSnapshot readSnapshot(ByteBuffer chunk, int offset) {
+        int players = chunk.get(offset + 12);
+        int activeMask = chunk.get(offset + 14);
+        int sixes = chunk.getShort(offset + 28);
+        int[] positions = new int[players];
+        int[] streaks = new int[players];
+        boolean[] active = new boolean[players];
+        for (int seat = 0; seat < players; seat++) {
+            positions[seat] = chunk.getShort(offset + 16 + seat * 2);
+            int streak = (sixes >>> (seat * 2)) & 3;
+            streaks[seat] = streak == 3 ? GameSnapshot.SKIPS_NEXT_TURN : streak;
+            active[seat] = (activeMask & (1 << seat)) != 0;
+        }
+        return new GameSnapshot(positions, streaks, active, chunk.get(offset + 13),
+            (chunk.get(offset + 15) & FLAG_ENDED) != 0);
+    }
+    
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotHighWater++;
+        if (slot / RECORDS_PER_CHUNK >= chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE));
+        }
+        return slot;
+    }
+    
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    
+    private ByteBuffer chunkFor(int slot) {
+        return chunks.get(slot / RECORDS_PER_CHUNK);
+    }
+    
+    private static int offsetOf(int slot) {
+        return (slot % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+    
+    private static long[] newKeyTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY_KEY);
+        return table;
+    }
+    
+    private static int bucket(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = bucket(key, mask); keys[i] != EMPTY_KEY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return -1;
+    }
+    
+    private void insert(long key, int value) {
+        if ((size + 1) * 4L > keys.length * 3L) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+        while (keys[i] != EMPTY_KEY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+    
+    private void remove(long key) {
+        int mask = keys.length - 1;
+        int i = bucket(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY_KEY) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        // Pull later entries of the probe run back so lookups never stop early
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != EMPTY_KEY; j = (j + 1) & mask) {
+            int home = bucket(keys[j], mask);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY_KEY;
+        size--;
+    }
+    
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = newKeyTable(oldKeys.length * 2);
+        values = new int[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.snakeladder.session;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import com.snakeladder.factory.BoardGeneratorFactory;
+import com.snakeladder.model.GameLevel;
+import com.snakeladder.model.GameLevelInterface;
+import com.snakeladder.service.Game;
+import com.snakeladder.service.GameSnapshot;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One persisted session: enough of the board configuration to regenerate
+ * the board from its seed, plus the game's snapshot. Encodes to a fixed
+ * 128-byte slot so that slots never straddle a page:
+ *
+ *   0  session id (8)          8  board seed (8)
+ *   16 flags (1)               17 board size (1)
+ *   18 generator type (1)      19 level ordinal, 0xFF for custom (1)
+ *   20 snake ratio (8)         28 ladder ratio (8)
+ *   36 player count (1)        37 current seat (1)
+ *   38 active seat mask (1)    39 format version (1)
+ *   40 positions (2 x 6)       52 six streaks (1 x 6)
+ *   124 CRC32C of bytes 0..123 (4)
+ *
+ * A tombstone is a slot with the live flag cleared; the journal uses it to
+ * record deletions.
+ */
+public class SessionRecord {
+    public static final int SIZE = 128;
+    public static final int MAX_PLAYERS = 6;
+    
+    private static final byte FORMAT_VERSION = 1;
+    private static final int FLAG_LIVE = 1;
+    private static final int FLAG_CHAINED = 1 << 1;
+    private static final int FLAG_ENDED = 1 << 2;
+    private static final int CUSTOM_LEVEL = 0xFF;
+    
+    private static final int FLAGS = 16;
+    private static final int VERSION = 39;
+    private static final int POSITIONS = 40;
+    private static final int SIXES = 52;
+    private static final int CHECKSUM = SIZE - 4;
+    
+    private final long sessionId;
+    private final long boardSeed;
+    private final int boardSize;
+    private final BoardGeneratorFactory.GeneratorType generatorType;
+    private final int levelOrdinal;
+    private final double snakeRatio;
+    private final double ladderRatio;
+    private final boolean chainTransforms;
+    private final GameSnapshot snapshot;
+    
+    private SessionRecord(long sessionId, long boardSeed, int boardSize,
+                          BoardGeneratorFactory.GeneratorType generatorType, int levelOrdinal,
+                          double snakeRatio, double ladderRatio, boolean chainTransforms,
+                          GameSnapshot snapshot) {
+        this.sessionId = sessionId;
+        this.boardSeed = boardSeed;
+        this.boardSize = boardSize;
+        this.generatorType = generatorType;
+        this.levelOrdinal = levelOrdinal;
+        this.snakeRatio = snakeRatio;
+        this.ladderRatio = ladderRatio;
+        this.chainTransforms = chainTransforms;
+        this.snapshot = snapshot;
+    }
+    
+    public static SessionRecord of(long sessionId, BoardConfiguration config, Game game) {
+        if (!config.isReproducible()) {
+            throw new IllegalArgumentException("Only seeded builder configurations can be persisted");
+        }
+        if (game.getPlayers().size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("At most " + MAX_PLAYERS + " players can be persisted");
+        }
+        GameLevelInterface level = config.getGameLevel();
+        int levelOrdinal = level instanceof GameLevel ? ((GameLevel) level).ordinal() : CUSTOM_LEVEL;
+        return new SessionRecord(sessionId, config.getSeed(), config.getBoardSize(), config.getGeneratorType(),
+            levelOrdinal, level.getSnakeRatio(), level.getLadderRatio(), config.isChainTransforms(),
+            game.snapshot());
+    }
+    
+    // Rebuilds the configuration; with the same seed it produces the same first board
+    public BoardConfiguration toConfiguration() {
+        BoardConfigurationBuilder builder = new BoardConfigurationBuilder()
+            .withSize(boardSize)
+            .withGeneratorType(generatorType)
+            .withSeed(boardSeed)
+            .withChainedTransforms(chainTransforms);
+        if (levelOrdinal == CUSTOM_LEVEL) {
+            builder.withCustomSnakeRatio(snakeRatio).withCustomLadderRatio(ladderRatio);
+        } else {
+            builder.withLevel(GameLevel.values()[levelOrdinal]);
+        }
+        return builder.build();
+    }
+    
+    public Game toGame() {
+        List<String> names = new ArrayList<>(snapshot.getPlayerCount());
+        for (int seat = 0; seat < snapshot.getPlayerCount(); seat++) {
+            names.add("Player " + (seat + 1));
+        }
+        return toGame(names);
+    }
+    
+    // Names are not persisted, so the caller supplies them in seat order
+    public Game toGame(List<String> playerNames) {
+        if (playerNames.size() != snapshot.getPlayerCount()) {
+            throw new IllegalArgumentException("Session has " + snapshot.getPlayerCount() + " players, got "
+                + playerNames.size() + " names");
+        }
+        Game game = new Game(toConfiguration(), playerNames);
+        game.restore(snapshot);
+        return game;
+    }
+    
+    public long getSessionId() {
+        return sessionId;
+    }
+    
+    public long getBoardSeed() {
+        return boardSeed;
+    }
+    
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    // Writes the full slot, checksum included, at the given absolute offset
+    public void writeTo(ByteBuffer buffer, int offset) {
+        int players = snapshot.getPlayerCount();
+        int flags = FLAG_LIVE;
+        if (chainTransforms) flags |= FLAG_CHAINED;
+        if (snapshot.isGameEnded()) flags |= FLAG_ENDED;
+        int activeMask = 0;
+        for (int seat = 0; seat < players; seat++) {
+            if (snapshot.isActive(seat)) {
+                activeMask |= 1 << seat;
+            }
+        }
+        
+        clear(buffer, offset);
+        buffer.putLong(offset, sessionId);
+        buffer.putLong(offset + 8, boardSeed);
+        buffer.put(offset + FLAGS, (byte) flags);
+        buffer.put(offset + 17, (byte) boardSize);
+        buffer.put(offset + 18, (byte) generatorType.ordinal());
+        buffer.put(offset + 19, (byte) levelOrdinal);
+        buffer.putDouble(offset + 20, snakeRatio);
+        buffer.putDouble(offset + 28, ladderRatio);
+        buffer.put(offset + 36, (byte) players);
+        buffer.put(offset + 37, (byte) snapshot.getCurrentPlayerIndex());
+        buffer.put(offset + 38, (byte) activeMask);
+        buffer.put(offset + VERSION, FORMAT_VERSION);
+        for (int seat = 0; seat < players; seat++) {
+            buffer.putShort(offset + POSITIONS + seat * 2, (short) snapshot.getPosition(seat));
+            buffer.put(offset + SIXES + seat, (byte) snapshot.getConsecutiveSixes(seat));
+        }
+        seal(buffer, offset);
+    }
+    
+    public static void writeTombstone(ByteBuffer buffer, int offset, long sessionId) {
+        clear(buffer, offset);
+        buffer.putLong(offset, sessionId);
+        buffer.put(offset + VERSION, FORMAT_VERSION);
+        seal(buffer, offset);
+    }
+    
+    // False for never-written, torn or foreign slots
+    public static boolean isIntact(ByteBuffer buffer, int offset) {
+        if (buffer.get(offset + VERSION) != FORMAT_VERSION) {
+            return false;
+        }
+        return buffer.getInt(offset + CHECKSUM) == checksum(buffer, offset);
+    }
+    
+    public static boolean isLive(ByteBuffer buffer, int offset) {
+        return (buffer.get(offset + FLAGS) & FLAG_LIVE) != 0;
+    }
+    
+    public static long sessionIdAt(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+    
+    // Caller checks isIntact and isLive first
+    public static SessionRecord readFrom(ByteBuffer buffer, int offset) {
+        int flags = buffer.get(offset + FLAGS);
+        int players = buffer.get(offset + 36);
+        int activeMask = buffer.get(offset + 38) & 0xFF;
+        int[] positions = new int[players];
+        int[] sixes = new int[players];
+        boolean[] active = new boolean[players];
+        for (int seat = 0; seat < players; seat++) {
+            positions[seat] = buffer.getShort(offset + POSITIONS + seat * 2) & 0xFFFF;
+            sixes[seat] = buffer.get(offset + SIXES + seat);
+            active[seat] = (activeMask & (1 << seat)) != 0;
+        }
+        GameSnapshot snapshot = new GameSnapshot(positions, sixes, active, buffer.get(offset + 37),
+            (flags & FLAG_ENDED) != 0);
+        return new SessionRecord(
+            buffer.getLong(offset),
+            buffer.getLong(offset + 8),
+            buffer.get(offset + 17),
+            BoardGeneratorFactory.GeneratorType.values()[buffer.get(offset + 18)],
+            buffer.get(offset + 19) & 0xFF,
+            buffer.getDouble(offset + 20),
+            buffer.getDouble(offset + 28),
+            (flags & FLAG_CHAINED) != 0,
+            snapshot);
+    }
+    
+    private static void clear(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < SIZE; i += 8) {
+            buffer.putLong(offset + i, 0L);
+        }
+    }
+    
+    private static void seal(ByteBuffer buffer, int offset) {
+        buffer.putInt(offset + CHECKSUM, checksum(buffer, offset));
+    }
+    
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(offset + CHECKSUM).position(offset);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SessionRecord{id=%d, board=%dx%d seed %d, %s}",
+            sessionId, boardSize, boardSize, boardSeed, snapshot);
+    }
+}
@@ -0,0 +1,314 @@
+package com.snakeladder.session;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.service.Game;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Crash-safe store for live sessions. Each session owns one fixed 128-byte
+ * slot in a memory-mapped data file; slots divide the page size evenly, so
+ * a slot update touches exactly one page. Every save or delete is first
+ * appended to a write-ahead journal of the same fixed-size records, and
+ * only applied to its slot in place once the journal has been forced, so a
+ * slot torn by a crash can always be rebuilt from the journal. Until then
+ * reads of the session are served from the journal buffer.
+ *
+ * A checkpoint forces the mapped pages to disk and truncates the journal.
+ * Recovery scans the slots (skipping any whose checksum fails), replays the
+ * journal on top up to the first torn entry, and checkpoints, which is a
+ * sequential pass over both files rather than per-session I/O.
+ */
+public class SessionStore implements AutoCloseable {
+    public enum SyncMode {
+        EVERY_WRITE,   // journal forced on each save or delete
+        ON_FLUSH       // journal buffered and forced when full or by flush(), checkpoint() or close()
+    }
+    
+    public static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+    
+    private static final int RECORD_SIZE = SessionRecord.SIZE;
+    private static final int PAGE_SIZE = 4096;
+    private static final int SEGMENT_SIZE = 16384 * PAGE_SIZE;
+    private static final int SLOTS_PER_SEGMENT = SEGMENT_SIZE / RECORD_SIZE;
+    private static final int JOURNAL_BUFFER_SIZE = 512 * RECORD_SIZE;
+    
+    private final FileChannel dataChannel;
+    private final FileChannel journalChannel;
+    private final SyncMode syncMode;
+    private final long checkpointBytes;
+    
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<Long, Integer> slotsBySession = new HashMap<>();
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotHighWater;
+    
+    private final ByteBuffer journalBuffer = ByteBuffer.allocateDirect(JOURNAL_BUFFER_SIZE);
+    // Slot each buffered journal record goes to once it is durable
+    private final int[] pendingSlots = new int[JOURNAL_BUFFER_SIZE / RECORD_SIZE];
+    private long journalBytes;
+    
+    private int recoveredSessions;
+    private int replayedEntries;
+    private long recoveryMillis;
+    
+    public SessionStore(Path directory) throws IOException {
+        this(directory, SyncMode.ON_FLUSH, DEFAULT_CHECKPOINT_BYTES);
+    }
+    
+    public SessionStore(Path directory, SyncMode syncMode, long checkpointBytes) throws IOException {
+        Files.createDirectories(directory);
+        this.syncMode = syncMode;
+        this.checkpointBytes = checkpointBytes;
+        this.dataChannel = FileChannel.open(directory.resolve("sessions.dat"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.journalChannel = FileChannel.open(directory.resolve("sessions.wal"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recover();
+    }
+    
+    public void save(long sessionId, BoardConfiguration config, Game game) throws IOException {
+        save(SessionRecord.of(sessionId, config, game));
+    }
+    
+    public synchronized void save(SessionRecord record) throws IOException {
+        Integer slot = slotsBySession.get(record.getSessionId());
+        if (slot == null) {
+            slot = allocateSlot();
+            slotsBySession.put(record.getSessionId(), slot);
+        }
+        int position = journalBuffer.position();
+        record.writeTo(journalBuffer, position);
+        journalBuffer.position(position + RECORD_SIZE);
+        pendingSlots[position / RECORD_SIZE] = slot;
+        afterJournalAppend();
+    }
+    
+    public synchronized boolean delete(long sessionId) throws IOException {
+        Integer slot = slotsBySession.remove(sessionId);
+        if (slot == null) {
+            return false;
+        }
+        int position = journalBuffer.position();
+        SessionRecord.writeTombstone(journalBuffer, position, sessionId);
+        journalBuffer.position(position + RECORD_SIZE);
+        pendingSlots[position / RECORD_SIZE] = slot;
+        // A save reusing the slot is buffered after the tombstone, so
+        // applying the records in order leaves the slot right
+        releaseSlot(slot);
+        afterJournalAppend();
+        return true;
+    }
+    
+    public synchronized SessionRecord load(long sessionId) {
+        Integer slot = slotsBySession.get(sessionId);
+        if (slot == null) {
+            return null;
+        }
+        // The newest buffered record is ahead of the slot
+        for (int offset = journalBuffer.position() - RECORD_SIZE; offset >= 0; offset -= RECORD_SIZE) {
+            if (SessionRecord.sessionIdAt(journalBuffer, offset) == sessionId) {
+                return SessionRecord.readFrom(journalBuffer, offset);
+            }
+        }
+        return SessionRecord.readFrom(segmentFor(slot), offsetOf(slot));
+    }
+    
+    public synchronized boolean contains(long sessionId) {
+        return slotsBySession.containsKey(sessionId);
+    }
+    
+    public synchronized long[] getSessionIds() {
+        long[] ids = new long[slotsBySession.size()];
+        int i = 0;
+        for (Long id : slotsBySession.keySet()) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+    
+    public synchronized int size() {
+        return slotsBySession.size();
+    }
+    
+    // Makes every save and delete so far durable, then applies them to
+    // their slots
+    public synchronized void flush() throws IOException {
+        ByteBuffer pending = journalBuffer.duplicate();
+        pending.flip();
+        while (pending.hasRemaining()) {
+            journalChannel.write(pending, journalChannel.size());
+        }
+        journalChannel.force(false);
+        
+        int records = journalBuffer.position() / RECORD_SIZE;
+        for (int i = 0; i < records; i++) {
+            int slot = pendingSlots[i];
+            copyRecord(journalBuffer, i * RECORD_SIZE, segmentFor(slot), offsetOf(slot));
+        }
+        journalBuffer.clear();
+    }
+    
+    public synchronized void checkpoint() throws IOException {
+        flush();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        // Slots are durable now, so the journal can start over
+        journalChannel.truncate(0);
+        journalChannel.force(true);
+        journalBytes = 0;
+    }
+    
+    public int getRecoveredSessions() { return recoveredSessions; }
+    public int getReplayedEntries() { return replayedEntries; }
+    public long getRecoveryMillis() { return recoveryMillis; }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            checkpoint();
+        } finally {
+            dataChannel.close();
+            journalChannel.close();
+        }
+    }
+    
+    private void afterJournalAppend() throws IOException {
+        journalBytes += RECORD_SIZE;
+        if (syncMode == SyncMode.EVERY_WRITE || !journalBuffer.hasRemaining()) {
+            flush();
+        }
+        if (journalBytes >= checkpointBytes) {
+            checkpoint();
+        }
+    }
+    
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        
+        long dataSize = dataChannel.size();
+        int existingSegments = (int) ((dataSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        for (int s = 0; s < existingSegments; s++) {
+            mapSegment();
+        }
+        BitSet used = new BitSet();
+        for (int slot = 0; slot < existingSegments * SLOTS_PER_SEGMENT; slot++) {
+            ByteBuffer segment = segmentFor(slot);
+            int offset = offsetOf(slot);
+            if (!SessionRecord.isIntact(segment, offset) || !SessionRecord.isLive(segment, offset)) {
+                continue;
+            }
+            long sessionId = SessionRecord.sessionIdAt(segment, offset);
+            Integer previous = slotsBySession.put(sessionId, slot);
+            if (previous != null) {
+                // Stale copy from a crash between a delete and a re-save; the
+                // journal brings the surviving slot up to date
+                SessionRecord.writeTombstone(segmentFor(previous), offsetOf(previous), sessionId);
+                used.clear(previous);
+            }
+            used.set(slot);
+            slotHighWater = slot + 1;
+        }
+        for (int slot = slotHighWater - 1; slot >= 0; slot--) {
+            if (!used.get(slot)) {
+                releaseSlot(slot);
+            }
+        }
+        recoveredSessions = slotsBySession.size();
+        
+        replayJournal();
+        checkpoint();
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+    
+    // Entries are applied in order and are idempotent, so replaying a journal
+    // that was partly folded into the slots already is harmless
+    private void replayJournal() throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(JOURNAL_BUFFER_SIZE);
+        long readPosition = 0;
+        replay:
+        while (true) {
+            chunk.clear();
+            int read = journalChannel.read(chunk, readPosition);
+            if (read < RECORD_SIZE) {
+                break;
+            }
+            for (int offset = 0; offset + RECORD_SIZE <= read; offset += RECORD_SIZE) {
+                if (!SessionRecord.isIntact(chunk, offset)) {
+                    break replay; // torn tail from a crash mid-append
+                }
+                applyJournalEntry(chunk, offset);
+                replayedEntries++;
+            }
+            readPosition += read - read % RECORD_SIZE;
+        }
+    }
+    
+    private void applyJournalEntry(ByteBuffer entry, int offset) {
+        long sessionId = SessionRecord.sessionIdAt(entry, offset);
+        Integer slot = slotsBySession.get(sessionId);
+        if (SessionRecord.isLive(entry, offset)) {
+            if (slot == null) {
+                slot = allocateSlot();
+                slotsBySession.put(sessionId, slot);
+            }
+            copyRecord(entry, offset, segmentFor(slot), offsetOf(slot));
+        } else if (slot != null) {
+            slotsBySession.remove(sessionId);
+            SessionRecord.writeTombstone(segmentFor(slot), offsetOf(slot), sessionId);
+            releaseSlot(slot);
+        }
+    }
+    
+    private static void copyRecord(ByteBuffer source, int sourceOffset, ByteBuffer target, int targetOffset) {
+        for (int i = 0; i < RECORD_SIZE; i += 8) {
+            target.putLong(targetOffset + i, source.getLong(sourceOffset + i));
+        }
+    }
+    
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotHighWater++;
+        if (slot / SLOTS_PER_SEGMENT >= segments.size()) {
+            try {
+                mapSegment();
+            } catch (IOException e) {
+                slotHighWater--;
+                throw new IllegalStateException("Could not grow the session file", e);
+            }
+        }
+        return slot;
+    }
+    
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    
+    // Mapping past the end of the file grows it
+    private void mapSegment() throws IOException {
+        long start = (long) segments.size() * SEGMENT_SIZE;
+        segments.add(dataChannel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_SIZE));
+    }
+    
+    private MappedByteBuffer segmentFor(int slot) {
+        return segments.get(slot / SLOTS_PER_SEGMENT);
+    }
+    
+    private static int offsetOf(int slot) {
+        return (slot % SLOTS_PER_SEGMENT) * RECORD_SIZE;
+    }
+}
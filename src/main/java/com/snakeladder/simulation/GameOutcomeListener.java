@@ -0,0 +1,10 @@
+package com.snakeladder.simulation;
+
+/**
+ * Called by GameSimulator once per game, on the simulating thread, with the
+ * game's index in the spec and how it went. A winning seat of -1 means the
+ * game hit the turn cap.
+ */
+public interface GameOutcomeListener {
+    void gameFinished(long gameIndex, int winningSeat, int turns, int extraTurns, int revokedTurns);
+}
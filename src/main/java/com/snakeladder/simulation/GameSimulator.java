@@ -0,0 +1,82 @@
+package com.snakeladder.simulation;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.model.Board;
+import com.snakeladder.model.Dice;
+import com.snakeladder.service.Game;
+import com.snakeladder.service.GameListener;
+import com.snakeladder.util.Mix64;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays a contiguous range of a spec's games on one thread. The board is
+ * generated once per simulator and shared by every game in the range.
+ */
+public class GameSimulator {
+    private final SimulationSpec spec;
+    private final Board board;
+    private final List<String> names;
+    
+    public GameSimulator(SimulationSpec spec) {
+        this.spec = spec;
+        BoardConfiguration config = spec.toConfiguration();
+        this.board = new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy(),
+            config.isChainTransforms());
+        this.names = new ArrayList<>(spec.getPlayerCount());
+        for (int seat = 0; seat < spec.getPlayerCount(); seat++) {
+            names.add("Player " + (seat + 1));
+        }
+    }
+    
+    public SimulationResult run(long fromGame, long toGame) {
+        return run(fromGame, toGame, null, null);
+    }
+    
+    public SimulationResult run(long fromGame, long toGame, GameListener listener) {
+        return run(fromGame, toGame, listener, null);
+    }
+    
+    // The listener, if any, sees every turn of every game in the range and
+    // the outcome listener every finished game, both on the calling thread
+    public SimulationResult run(long fromGame, long toGame, GameListener listener, GameOutcomeListener outcomes) {
+        if (fromGame < 0 || toGame > spec.getGameCount() || fromGame > toGame) {
+            throw new IllegalArgumentException("Game range [" + fromGame + ", " + toGame + ") is outside the spec");
+        }
+        SimulationResult result = new SimulationResult(spec.getPlayerCount());
+        for (long index = fromGame; index < toGame; index++) {
+            playGame(index, result, listener, outcomes);
+        }
+        return result;
+    }
+    
+    private void playGame(long index, SimulationResult result, GameListener listener, GameOutcomeListener outcomes) {
+        Random random = new Random(Mix64.mix(spec.getDiceSeed() + index * 0x9E3779B97F4A7C15L));
+        Game game = new Game(board, names, new Dice(spec.getDie(), random));
+        if (listener != null) {
+            game.addListener(listener);
+        }
+        int turns = 0;
+        int extra = 0;
+        int revoked = 0;
+        while (!game.isGameEnded() && turns < spec.getMaxTurns()) {
+            Game.GameResultType type = game.playTurn().getType();
+            turns++;
+            if (type == Game.GameResultType.EXTRA_TURN) {
+                extra++;
+            } else if (type == Game.GameResultType.TURN_REVOKED) {
+                revoked++;
+            }
+        }
+        int winningSeat = game.isGameEnded() ? game.getPlayers().indexOf(game.getWinner()) : -1;
+        result.recordGame(winningSeat, turns, extra, revoked);
+        if (outcomes != null) {
+            outcomes.gameFinished(index, winningSeat, turns, extra, revoked);
+        }
+    }
+    
+    public Board getBoard() {
+        return board;
+    }
+}
@@ -0,0 +1,54 @@
+package com.snakeladder.simulation;
+
+import com.snakeladder.analysis.CellHeatmap;
+import com.snakeladder.model.Board;
+import java.util.stream.LongStream;
+
+/**
+ * Builds a cell heatmap by playing a spec's games in parallel. Each chunk
+ * of games records into its own heatmap, so the play loop never touches a
+ * shared counter, and the chunk heatmaps are summed once at the end. The
+ * result is the same whatever the parallelism.
+ */
+public class HeatmapCollector {
+    public static final int DEFAULT_GAMES_PER_CHUNK = 4096;
+    
+    private final SimulationSpec spec;
+    private final GameSimulator simulator;
+    private final int gamesPerChunk;
+    
+    public HeatmapCollector(SimulationSpec spec) {
+        this(spec, DEFAULT_GAMES_PER_CHUNK);
+    }
+    
+    public HeatmapCollector(SimulationSpec spec, int gamesPerChunk) {
+        if (gamesPerChunk < 1) {
+            throw new IllegalArgumentException("gamesPerChunk must be positive");
+        }
+        this.spec = spec;
+        this.simulator = new GameSimulator(spec);
+        this.gamesPerChunk = gamesPerChunk;
+    }
+    
+    public Board getBoard() {
+        return simulator.getBoard();
+    }
+    
+    public CellHeatmap collect() {
+        long games = spec.getGameCount();
+        long chunks = (games + gamesPerChunk - 1) / gamesPerChunk;
+        int totalCells = simulator.getBoard().getTotalCells();
+        return LongStream.range(0, chunks).parallel()
+            .collect(() -> new CellHeatmap(totalCells),
+                (heatmap, chunk) -> heatmap.merge(
+                    collectChunk(chunk * gamesPerChunk, Math.min(games, (chunk + 1) * gamesPerChunk))),
+                CellHeatmap::merge);
+    }
+    
+    private CellHeatmap collectChunk(long fromGame, long toGame) {
+        CellHeatmap heatmap = new CellHeatmap(simulator.getBoard().getTotalCells());
+        SimulationResult result = simulator.run(fromGame, toGame, heatmap);
+        heatmap.recordGames(result.getGames());
+        return heatmap;
+    }
+}
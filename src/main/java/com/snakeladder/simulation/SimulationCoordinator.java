@@ -0,0 +1,316 @@
+package com.snakeladder.simulation;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Splits a simulation into shards and farms them out to worker processes
+ * over TCP on the loopback interface. Each connected worker takes one shard
+ * at a time from a shared queue, so faster workers simply take more. If a
+ * worker dies mid-shard, the shard goes back on the queue, and a locally
+ * spawned worker that exits is replaced. Once the respawns run out and the
+ * last worker is gone, running jobs fail rather than wait for a worker
+ * that will never come.
+ *
+ * Shard results are merged in shard order once all are in. Since every game
+ * seeds its own dice from its index, the merged result is identical however
+ * the shards were spread across workers or retried.
+ *
+ * Usage: SimulationCoordinator [games] [shards] [workers] [boardSeed] [diceSeed] [players]
+ */
+public class SimulationCoordinator implements AutoCloseable {
+    public static final int MAX_SHARD_ATTEMPTS = 3;
+    
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Work> workQueue = new LinkedBlockingQueue<>();
+    private final List<Socket> connections = new ArrayList<>();
+    private final List<Process> localWorkers = new ArrayList<>();
+    private final List<Thread> handlers = new ArrayList<>();
+    private final List<Job> runningJobs = new ArrayList<>();
+    private final Thread acceptThread;
+    private volatile boolean closed;
+    private int respawnsLeft = 16;
+    
+    public SimulationCoordinator(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 64, InetAddress.getLoopbackAddress());
+        this.acceptThread = new Thread(this::acceptLoop, "simulation-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+    
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    // Starts workers as child JVMs on this machine with the coordinator's classpath
+    public synchronized void spawnLocalWorkers(int count) throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (int i = 0; i < count; i++) {
+            Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                SimulationWorker.class.getName(), "127.0.0.1", String.valueOf(getPort()))
+                .inheritIO()
+                .start();
+            localWorkers.add(process);
+            process.onExit().thenRun(() -> workerExited(process));
+        }
+    }
+    
+    private synchronized void workerExited(Process process) {
+        if (closed || !localWorkers.remove(process)) {
+            return;
+        }
+        if (respawnsLeft <= 0) {
+            System.err.println("Simulation worker exited with " + process.exitValue() + "; no respawns left");
+            failJobsIfNoWorkers();
+            return;
+        }
+        respawnsLeft--;
+        try {
+            spawnLocalWorkers(1);
+        } catch (IOException e) {
+            System.err.println("Could not replace simulation worker: " + e.getMessage());
+            failJobsIfNoWorkers();
+        }
+    }
+    
+    // Only once respawns are used up: until then a replacement is on its
+    // way, and with no local workers at all the coordinator waits for
+    // workers to connect
+    private synchronized void failJobsIfNoWorkers() {
+        if (respawnsLeft <= 0 && localWorkers.isEmpty() && connections.isEmpty()) {
+            failRunningJobs("all simulation workers exited and none are left to respawn");
+        }
+    }
+    
+    private synchronized void failRunningJobs(String reason) {
+        for (Job job : runningJobs) {
+            job.fail(reason);
+        }
+    }
+    
+    public synchronized List<Process> getLocalWorkers() {
+        return new ArrayList<>(localWorkers);
+    }
+    
+    public SimulationResult run(SimulationSpec spec, int shardCount) throws InterruptedException {
+        if (shardCount < 1 || shardCount > spec.getGameCount()) {
+            throw new IllegalArgumentException("Shard count must be between 1 and the number of games");
+        }
+        Job job = new Job(spec, shardCount);
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Simulation coordinator is closed");
+            }
+            runningJobs.add(job);
+        }
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                workQueue.add(new Work(job, shard));
+            }
+            failJobsIfNoWorkers();
+            job.done.await();
+        } finally {
+            synchronized (this) {
+                runningJobs.remove(job);
+            }
+        }
+        if (job.failure != null) {
+            workQueue.removeIf(work -> work.job == job);
+            throw new IllegalStateException(job.failure);
+        }
+        
+        SimulationResult merged = new SimulationResult(spec.getPlayerCount());
+        for (SimulationResult shardResult : job.results) {
+            merged.merge(shardResult);
+        }
+        return merged;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        synchronized (this) {
+            for (Socket connection : connections) {
+                try (DataOutputStream out = new DataOutputStream(connection.getOutputStream())) {
+                    out.writeByte(SimulationWorker.SHUTDOWN);
+                } catch (IOException ignored) {
+                    // worker already gone
+                }
+            }
+            connections.clear();
+            for (Thread handler : handlers) {
+                handler.interrupt();
+            }
+            for (Process process : localWorkers) {
+                process.destroy();
+            }
+            failRunningJobs("simulation coordinator closed");
+        }
+    }
+    
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Thread handler = new Thread(() -> serveWorker(socket), "simulation-worker-" + socket.getPort());
+                handler.setDaemon(true);
+                synchronized (this) {
+                    connections.add(socket);
+                    handlers.add(handler);
+                }
+                handler.start();
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Simulation coordinator stopped accepting: " + e.getMessage());
+                }
+                return;
+            }
+        }
+    }
+    
+    private void serveWorker(Socket socket) {
+        Work work = null;
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (!closed) {
+                work = workQueue.take();
+                if (work.job.failure != null) {
+                    continue;
+                }
+                long[] range = work.job.range(work.shard);
+                out.writeByte(SimulationWorker.SHARD);
+                out.writeInt(work.shard);
+                work.job.spec.writeTo(out);
+                out.writeLong(range[0]);
+                out.writeLong(range[1]);
+                out.flush();
+                
+                byte type = in.readByte();
+                int shard = in.readInt();
+                if (shard != work.shard) {
+                    throw new IOException("Worker answered shard " + shard + " instead of " + work.shard);
+                }
+                if (type == SimulationWorker.RESULT) {
+                    work.job.complete(work.shard, SimulationResult.readFrom(in));
+                } else {
+                    work.job.retry(work, "worker reported " + in.readUTF());
+                }
+                work = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            if (work != null && !closed) {
+                work.job.retry(work, "worker connection lost: " + (e instanceof SocketException || e instanceof EOFException
+                    ? "worker exited" : e.getMessage()));
+            }
+        } finally {
+            synchronized (this) {
+                connections.remove(socket);
+                handlers.remove(Thread.currentThread());
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+            if (!closed) {
+                failJobsIfNoWorkers();
+            }
+        }
+    }
+    
+    private final class Job {
+        final SimulationSpec spec;
+        final int shardCount;
+        final SimulationResult[] results;
+        final int[] attempts;
+        final CountDownLatch done;
+        volatile String failure;
+        
+        Job(SimulationSpec spec, int shardCount) {
+            this.spec = spec;
+            this.shardCount = shardCount;
+            this.results = new SimulationResult[shardCount];
+            this.attempts = new int[shardCount];
+            this.done = new CountDownLatch(shardCount);
+        }
+        
+        long[] range(int shard) {
+            long games = spec.getGameCount();
+            return new long[] {games * shard / shardCount, games * (shard + 1) / shardCount};
+        }
+        
+        synchronized void complete(int shard, SimulationResult result) {
+            if (results[shard] == null && failure == null) {
+                results[shard] = result;
+                done.countDown();
+            }
+        }
+        
+        synchronized void retry(Work work, String reason) {
+            if (failure != null || results[work.shard] != null) {
+                return;
+            }
+            if (++attempts[work.shard] >= MAX_SHARD_ATTEMPTS) {
+                fail("Shard " + work.shard + " failed " + attempts[work.shard] + " times, last: " + reason);
+                return;
+            }
+            workQueue.add(work);
+        }
+        
+        // Releases run() with the reason unless every shard is already in
+        synchronized void fail(String reason) {
+            if (failure != null || done.getCount() == 0) {
+                return;
+            }
+            failure = reason;
+            while (done.getCount() > 0) {
+                done.countDown();
+            }
+        }
+    }
+    
+    private static final class Work {
+        final Job job;
+        final int shard;
+        
+        Work(Job job, int shard) {
+            this.job = job;
+            this.shard = shard;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long boardSeed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        long diceSeed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        int players = args.length > 5 ? Integer.parseInt(args[5]) : 2;
+        
+        BoardConfiguration config = new BoardConfigurationBuilder().withSeed(boardSeed).build();
+        SimulationSpec spec = SimulationSpec.of(config, players, diceSeed, games);
+        try (SimulationCoordinator coordinator = new SimulationCoordinator(0)) {
+            coordinator.spawnLocalWorkers(workers);
+            long start = System.nanoTime();
+            SimulationResult result = coordinator.run(spec, shards);
+            System.out.printf("%s%nfinished in %.2fs across %d workers%n%s", spec,
+                (System.nanoTime() - start) / 1e9, workers, result);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.snakeladder.simulation;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * A long simulation that survives the JVM dying. The spec's games are
+ * split into fixed blocks; worker threads play blocks and fold each into
+ * the merged result, and every checkpoint interval the completed game
+ * ranges and the merged result are written to disk. A run pointed at an
+ * existing checkpoint skips the blocks it already holds. Since every game
+ * seeds its own dice and merging only adds, the final result is identical
+ * to an uninterrupted run however often the job was restarted.
+ *
+ * Checkpoints are written to a temporary file, forced, and renamed over
+ * the previous one, so a crash mid-write leaves the last good checkpoint.
+ *
+ * Checkpoint file:
+ *   magic "SNLJOB01" (8)
+ *   spec length (4), spec bytes
+ *   games per block (8)
+ *   range count (4), then [fromGame, toGame) pairs (8 + 8 each)
+ *   merged SimulationResult
+ *   CRC32C of everything before it (4)
+ *
+ * Usage: SimulationJob checkpointFile [games] [threads] [boardSeed] [diceSeed] [players]
+ */
+public class SimulationJob {
+    public static final long DEFAULT_GAMES_PER_BLOCK = 1 << 16;
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 10_000;
+    private static final byte[] MAGIC = "SNLJOB01".getBytes(StandardCharsets.US_ASCII);
+    
+    private final SimulationSpec spec;
+    private final Path checkpointFile;
+    private final long gamesPerBlock;
+    private final long checkpointIntervalMillis;
+    private final int blockCount;
+    private final byte[] specBytes;
+    private final Object checkpointLock = new Object();
+    
+    // Guarded by this
+    private final BitSet completedBlocks = new BitSet();
+    private SimulationResult merged;
+    
+    private long checkpoints;
+    private long checkpointNanos;
+    
+    public SimulationJob(SimulationSpec spec, Path checkpointFile) throws IOException {
+        this(spec, checkpointFile, DEFAULT_GAMES_PER_BLOCK, DEFAULT_CHECKPOINT_INTERVAL_MILLIS);
+    }
+    
+    public SimulationJob(SimulationSpec spec, Path checkpointFile, long gamesPerBlock, long checkpointIntervalMillis)
+            throws IOException {
+        if (gamesPerBlock < 1 || checkpointIntervalMillis < 1) {
+            throw new IllegalArgumentException("Block size and checkpoint interval must be positive");
+        }
+        long blocks = (spec.getGameCount() + gamesPerBlock - 1) / gamesPerBlock;
+        if (blocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many blocks; use a larger block size");
+        }
+        this.spec = spec;
+        this.checkpointFile = checkpointFile;
+        this.gamesPerBlock = gamesPerBlock;
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        this.blockCount = (int) blocks;
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        spec.writeTo(new DataOutputStream(bytes));
+        this.specBytes = bytes.toByteArray();
+        
+        this.merged = new SimulationResult(spec.getPlayerCount());
+        if (Files.exists(checkpointFile)) {
+            restore();
+        }
+    }
+    
+    public SimulationSpec getSpec() {
+        return spec;
+    }
+    
+    public synchronized boolean isComplete() {
+        return completedBlocks.cardinality() == blockCount;
+    }
+    
+    public synchronized long getCompletedGames() {
+        return merged.getGames();
+    }
+    
+    public synchronized long getCheckpointCount() {
+        return checkpoints;
+    }
+    
+    public synchronized double getCheckpointSeconds() {
+        return checkpointNanos / 1e9;
+    }
+    
+    /**
+     * Plays every block not yet in the checkpoint on the given number of
+     * threads and returns the merged result. If a worker fails or the
+     * calling thread is interrupted, the blocks finished so far are
+     * checkpointed before the exception propagates.
+     */
+    public SimulationResult run(int threads) throws IOException, InterruptedException {
+        int[] pending;
+        synchronized (this) {
+            pending = new int[blockCount - completedBlocks.cardinality()];
+            int count = 0;
+            for (int block = completedBlocks.nextClearBit(0); block < blockCount;
+                    block = completedBlocks.nextClearBit(block + 1)) {
+                pending[count++] = block;
+            }
+        }
+        if (pending.length == 0) {
+            return result();
+        }
+        
+        GameSimulator simulator = new GameSimulator(spec);
+        AtomicInteger nextBlock = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "simulation-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Workers stop claiming blocks once this is set; a block in flight finishes
+        AtomicBoolean stopping = new AtomicBoolean();
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                int index;
+                try {
+                    while (!stopping.get() && (index = nextBlock.getAndIncrement()) < pending.length) {
+                        int block = pending[index];
+                        long from = block * gamesPerBlock;
+                        long to = Math.min(spec.getGameCount(), from + gamesPerBlock);
+                        SimulationResult blockResult = simulator.run(from, to);
+                        synchronized (this) {
+                            merged.merge(blockResult);
+                            completedBlocks.set(block);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    stopping.set(true);
+                    throw e;
+                }
+                return null;
+            }));
+        }
+        pool.shutdown();
+        
+        try {
+            while (!pool.awaitTermination(checkpointIntervalMillis, TimeUnit.MILLISECONDS)) {
+                checkpoint();
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            stopping.set(true);
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            checkpoint();
+            throw new IllegalStateException("Simulation block failed", e.getCause());
+        } catch (InterruptedException e) {
+            stopping.set(true);
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            checkpoint();
+            throw e;
+        }
+        checkpoint();
+        return result();
+    }
+    
+    private synchronized SimulationResult result() {
+        SimulationResult copy = new SimulationResult(spec.getPlayerCount());
+        copy.merge(merged);
+        return copy;
+    }
+    
+    // Snapshot under the lock, write outside it so workers never wait on the disk
+    public void checkpoint() throws IOException {
+        long start = System.nanoTime();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC);
+        out.writeInt(specBytes.length);
+        out.write(specBytes);
+        out.writeLong(gamesPerBlock);
+        synchronized (this) {
+            List<long[]> ranges = completedRanges();
+            out.writeInt(ranges.size());
+            for (long[] range : ranges) {
+                out.writeLong(range[0]);
+                out.writeLong(range[1]);
+            }
+            merged.writeTo(out);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        synchronized (checkpointLock) {
+            writeAtomically(bytes.toByteArray());
+        }
+        synchronized (this) {
+            checkpoints++;
+            checkpointNanos += System.nanoTime() - start;
+        }
+    }
+    
+    // Runs of completed blocks as [fromGame, toGame)
+    private List<long[]> completedRanges() {
+        List<long[]> ranges = new ArrayList<>();
+        for (int from = completedBlocks.nextSetBit(0); from >= 0; ) {
+            int to = completedBlocks.nextClearBit(from);
+            ranges.add(new long[] {from * gamesPerBlock, Math.min(spec.getGameCount(), to * gamesPerBlock)});
+            from = to < blockCount ? completedBlocks.nextSetBit(to) : -1;
+        }
+        return ranges;
+    }
+    
+    private void writeAtomically(byte[] contents) throws IOException {
+        Path temporary = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(checkpointFile.toAbsolutePath().getParent());
+    }
+    
+    // Makes the rename itself durable; not every platform can open a directory
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // best effort
+        }
+    }
+    
+    private void restore() throws IOException {
+        byte[] contents = Files.readAllBytes(checkpointFile);
+        if (contents.length < MAGIC.length + 4
+                || !Arrays.equals(Arrays.copyOf(contents, MAGIC.length), MAGIC)) {
+            throw new IOException(checkpointFile + " is not a simulation checkpoint");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(contents, 0, contents.length - 4);
+        if ((int) crc.getValue() != ByteBuffer.wrap(contents, contents.length - 4, 4).getInt()) {
+            throw new IOException("Checkpoint " + checkpointFile + " is corrupt");
+        }
+        
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(contents, MAGIC.length,
+            contents.length - MAGIC.length - 4));
+        byte[] storedSpec = new byte[in.readInt()];
+        in.readFully(storedSpec);
+        long storedBlock = in.readLong();
+        if (!Arrays.equals(storedSpec, specBytes) || storedBlock != gamesPerBlock) {
+            throw new IllegalStateException("Checkpoint " + checkpointFile + " belongs to a different job: "
+                + SimulationSpec.readFrom(new DataInputStream(new ByteArrayInputStream(storedSpec)))
+                + ", " + storedBlock + " games per block");
+        }
+        int ranges = in.readInt();
+        for (int i = 0; i < ranges; i++) {
+            long from = in.readLong();
+            long to = in.readLong();
+            completedBlocks.set((int) (from / gamesPerBlock), (int) ((to + gamesPerBlock - 1) / gamesPerBlock));
+        }
+        merged = SimulationResult.readFrom(in);
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SimulationJob checkpointFile [games] [threads] [boardSeed] [diceSeed] [players]");
+            System.exit(1);
+        }
+        Path checkpoint = Paths.get(args[0]);
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 100_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long boardSeed = args.length > 3 ? Long.parseLong(args[3]) : 42;
+        long diceSeed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+        int players = args.length > 5 ? Integer.parseInt(args[5]) : 2;
+        
+        BoardConfiguration config = new BoardConfigurationBuilder().withSeed(boardSeed).build();
+        SimulationJob job = new SimulationJob(SimulationSpec.of(config, players, diceSeed, games), checkpoint);
+        if (job.getCompletedGames() > 0) {
+            System.out.printf("Resuming from %s with %d of %d games done%n", checkpoint, job.getCompletedGames(), games);
+        }
+        long start = System.nanoTime();
+        SimulationResult result = job.run(threads);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s%nfinished in %.2fs, %d checkpoints took %.3fs%n%s", job.getSpec(), elapsed,
+            job.getCheckpointCount(), job.getCheckpointSeconds(), result);
+    }
+}
@@ -0,0 +1,165 @@
+package com.snakeladder.simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Mergeable totals for a range of simulated games: wins per seat, a
+ * histogram of game length in turns (the last bucket collects everything
+ * longer), and counts of extra and revoked turns. Merging only adds, so
+ * the merged result does not depend on the order shards come back in.
+ */
+public class SimulationResult {
+    public static final int HISTOGRAM_BUCKETS = 512;
+    
+    private final long[] seatWins;
+    private final long[] turnHistogram = new long[HISTOGRAM_BUCKETS];
+    private long games;
+    private long unfinishedGames;
+    private long totalTurns;
+    private long extraTurns;
+    private long revokedTurns;
+    
+    public SimulationResult(int playerCount) {
+        this.seatWins = new long[playerCount];
+    }
+    
+    void recordGame(int winningSeat, int turns, int extra, int revoked) {
+        games++;
+        totalTurns += turns;
+        extraTurns += extra;
+        revokedTurns += revoked;
+        if (winningSeat < 0) {
+            unfinishedGames++;
+        } else {
+            seatWins[winningSeat]++;
+            turnHistogram[Math.min(turns, HISTOGRAM_BUCKETS - 1)]++;
+        }
+    }
+    
+    public void merge(SimulationResult other) {
+        if (other.seatWins.length != seatWins.length) {
+            throw new IllegalArgumentException("Cannot merge results for different player counts");
+        }
+        for (int i = 0; i < seatWins.length; i++) {
+            seatWins[i] += other.seatWins[i];
+        }
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            turnHistogram[i] += other.turnHistogram[i];
+        }
+        games += other.games;
+        unfinishedGames += other.unfinishedGames;
+        totalTurns += other.totalTurns;
+        extraTurns += other.extraTurns;
+        revokedTurns += other.revokedTurns;
+    }
+    
+    public long getGames() { return games; }
+    public long getUnfinishedGames() { return unfinishedGames; }
+    public long getTotalTurns() { return totalTurns; }
+    public long getExtraTurns() { return extraTurns; }
+    public long getRevokedTurns() { return revokedTurns; }
+    
+    public long getSeatWins(int seat) {
+        return seatWins[seat];
+    }
+    
+    public double getWinRate(int seat) {
+        long finished = games - unfinishedGames;
+        return finished == 0 ? 0 : (double) seatWins[seat] / finished;
+    }
+    
+    public long[] getTurnHistogram() {
+        return turnHistogram.clone();
+    }
+    
+    public double getAverageTurns() {
+        return games == 0 ? 0 : (double) totalTurns / games;
+    }
+    
+    // Smallest turn count covering the given share of finished games
+    public int getTurnPercentile(double percentile) {
+        long finished = games - unfinishedGames;
+        long target = (long) Math.ceil(percentile / 100.0 * finished);
+        long seen = 0;
+        for (int turns = 0; turns < HISTOGRAM_BUCKETS; turns++) {
+            seen += turnHistogram[turns];
+            if (seen >= target && seen > 0) {
+                return turns;
+            }
+        }
+        return HISTOGRAM_BUCKETS - 1;
+    }
+    
+    // Runs of zeros in the histogram are common, so they are written as gaps
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(seatWins.length);
+        for (long wins : seatWins) {
+            out.writeLong(wins);
+        }
+        out.writeLong(games);
+        out.writeLong(unfinishedGames);
+        out.writeLong(totalTurns);
+        out.writeLong(extraTurns);
+        out.writeLong(revokedTurns);
+        int nonZero = 0;
+        for (long count : turnHistogram) {
+            if (count != 0) nonZero++;
+        }
+        out.writeShort(nonZero);
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            if (turnHistogram[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(turnHistogram[i]);
+            }
+        }
+    }
+    
+    public static SimulationResult readFrom(DataInput in) throws IOException {
+        SimulationResult result = new SimulationResult(in.readByte());
+        for (int i = 0; i < result.seatWins.length; i++) {
+            result.seatWins[i] = in.readLong();
+        }
+        result.games = in.readLong();
+        result.unfinishedGames = in.readLong();
+        result.totalTurns = in.readLong();
+        result.extraTurns = in.readLong();
+        result.revokedTurns = in.readLong();
+        int nonZero = in.readUnsignedShort();
+        for (int i = 0; i < nonZero; i++) {
+            result.turnHistogram[in.readUnsignedShort()] = in.readLong();
+        }
+        return result;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SimulationResult)) return false;
+        SimulationResult other = (SimulationResult) o;
+        return games == other.games && unfinishedGames == other.unfinishedGames
+            && totalTurns == other.totalTurns && extraTurns == other.extraTurns
+            && revokedTurns == other.revokedTurns
+            && Arrays.equals(seatWins, other.seatWins)
+            && Arrays.equals(turnHistogram, other.turnHistogram);
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(seatWins) + Arrays.hashCode(turnHistogram) + Long.hashCode(totalTurns);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games (%d unfinished), avg %.2f turns, p50 %d, p99 %d, extra %d, revoked %d%n",
+            games, unfinishedGames, getAverageTurns(), getTurnPercentile(50), getTurnPercentile(99),
+            extraTurns, revokedTurns));
+        for (int seat = 0; seat < seatWins.length; seat++) {
+            sb.append(String.format("  seat %d: %d wins (%.2f%%)%n", seat + 1, seatWins[seat], getWinRate(seat) * 100));
+        }
+        return sb.toString();
+    }
+}
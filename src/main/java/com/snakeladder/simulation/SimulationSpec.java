@@ -0,0 +1,136 @@
+package com.snakeladder.simulation;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.builder.BoardConfigurationBuilder;
+import com.snakeladder.factory.BoardGeneratorFactory;
+import com.snakeladder.model.DieModel;
+import com.snakeladder.model.GameLevel;
+import com.snakeladder.model.GameLevelInterface;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A simulation job in primitive form so it can travel between processes:
+ * how to regenerate the board, the rules, how many players, and the range
+ * of game indices. Game i always rolls dice seeded from the dice seed and
+ * i, so any split of the range plays exactly the same games.
+ *
+ * The rules that vary between studies are the die model, chained
+ * transforms and a cap on turns per game; the bonus-roll limit and kills
+ * are fixed by Game.
+ */
+public class SimulationSpec {
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+    private static final int CUSTOM_LEVEL = -1;
+    
+    private final int boardSize;
+    private final BoardGeneratorFactory.GeneratorType generatorType;
+    private final int levelOrdinal;
+    private final double snakeRatio;
+    private final double ladderRatio;
+    private final long boardSeed;
+    private final boolean chainTransforms;
+    private final int playerCount;
+    private final int maxTurns;
+    private final DieModel die;
+    private final long diceSeed;
+    private final long gameCount;
+    
+    private SimulationSpec(int boardSize, BoardGeneratorFactory.GeneratorType generatorType, int levelOrdinal,
+                           double snakeRatio, double ladderRatio, long boardSeed, boolean chainTransforms,
+                           int playerCount, int maxTurns, DieModel die, long diceSeed, long gameCount) {
+        if (playerCount < 2) {
+            throw new IllegalArgumentException("At least two players are required");
+        }
+        if (gameCount < 1 || maxTurns < 1) {
+            throw new IllegalArgumentException("Game count and turn cap must be positive");
+        }
+        this.boardSize = boardSize;
+        this.generatorType = generatorType;
+        this.levelOrdinal = levelOrdinal;
+        this.snakeRatio = snakeRatio;
+        this.ladderRatio = ladderRatio;
+        this.boardSeed = boardSeed;
+        this.chainTransforms = chainTransforms;
+        this.playerCount = playerCount;
+        this.maxTurns = maxTurns;
+        this.die = die;
+        this.diceSeed = diceSeed;
+        this.gameCount = gameCount;
+    }
+    
+    public static SimulationSpec of(BoardConfiguration config, int playerCount, long diceSeed, long gameCount) {
+        return of(config, playerCount, diceSeed, gameCount, DEFAULT_MAX_TURNS, DieModel.STANDARD);
+    }
+    
+    public static SimulationSpec of(BoardConfiguration config, int playerCount, long diceSeed, long gameCount,
+                                    int maxTurns, DieModel die) {
+        if (!config.isReproducible()) {
+            throw new IllegalArgumentException("Simulations need a seeded builder configuration");
+        }
+        GameLevelInterface level = config.getGameLevel();
+        int levelOrdinal = level instanceof GameLevel ? ((GameLevel) level).ordinal() : CUSTOM_LEVEL;
+        return new SimulationSpec(config.getBoardSize(), config.getGeneratorType(), levelOrdinal,
+            level.getSnakeRatio(), level.getLadderRatio(), config.getSeed(), config.isChainTransforms(),
+            playerCount, maxTurns, die, diceSeed, gameCount);
+    }
+    
+    // Each call builds a fresh strategy, so the board is the same every time
+    public BoardConfiguration toConfiguration() {
+        BoardConfigurationBuilder builder = new BoardConfigurationBuilder()
+            .withSize(boardSize)
+            .withGeneratorType(generatorType)
+            .withSeed(boardSeed)
+            .withChainedTransforms(chainTransforms);
+        if (levelOrdinal == CUSTOM_LEVEL) {
+            builder.withCustomSnakeRatio(snakeRatio).withCustomLadderRatio(ladderRatio);
+        } else {
+            builder.withLevel(GameLevel.values()[levelOrdinal]);
+        }
+        return builder.build();
+    }
+    
+    public int getPlayerCount() { return playerCount; }
+    public int getMaxTurns() { return maxTurns; }
+    public DieModel getDie() { return die; }
+    public long getDiceSeed() { return diceSeed; }
+    public long getGameCount() { return gameCount; }
+    
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(boardSize);
+        out.writeByte(generatorType.ordinal());
+        out.writeByte(levelOrdinal);
+        out.writeDouble(snakeRatio);
+        out.writeDouble(ladderRatio);
+        out.writeLong(boardSeed);
+        out.writeBoolean(chainTransforms);
+        out.writeByte(playerCount);
+        out.writeInt(maxTurns);
+        die.writeTo(out);
+        out.writeLong(diceSeed);
+        out.writeLong(gameCount);
+    }
+    
+    public static SimulationSpec readFrom(DataInput in) throws IOException {
+        return new SimulationSpec(
+            in.readByte(),
+            BoardGeneratorFactory.GeneratorType.values()[in.readByte()],
+            in.readByte(),
+            in.readDouble(),
+            in.readDouble(),
+            in.readLong(),
+            in.readBoolean(),
+            in.readByte(),
+            in.readInt(),
+            DieModel.readFrom(in),
+            in.readLong(),
+            in.readLong());
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("SimulationSpec{board=%dx%d %s seed %d, players=%d, dice=%s, games=%d, diceSeed=%d}",
+            boardSize, boardSize, generatorType, boardSeed, playerCount, die, gameCount, diceSeed);
+    }
+}
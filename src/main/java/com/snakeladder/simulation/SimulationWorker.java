@@ -0,0 +1,72 @@
+package com.snakeladder.simulation;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * Worker process for distributed simulations. Connects to a coordinator,
+ * plays each shard it is sent on one thread, replies with the compact
+ * result, and exits when told to or when the coordinator goes away.
+ *
+ * Usage: SimulationWorker host port
+ */
+public class SimulationWorker {
+    static final byte SHARD = 1;
+    static final byte RESULT = 2;
+    static final byte FAILED = 3;
+    static final byte SHUTDOWN = 4;
+    
+    private final Socket socket;
+    
+    public SimulationWorker(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+    }
+    
+    public void serve() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (type == SHUTDOWN) {
+                    return;
+                }
+                if (type != SHARD) {
+                    throw new IOException("Unexpected message type " + type);
+                }
+                int shard = in.readInt();
+                SimulationSpec spec = SimulationSpec.readFrom(in);
+                long fromGame = in.readLong();
+                long toGame = in.readLong();
+                
+                SimulationResult result;
+                try {
+                    result = new GameSimulator(spec).run(fromGame, toGame);
+                } catch (RuntimeException e) {
+                    out.writeByte(FAILED);
+                    out.writeInt(shard);
+                    out.writeUTF(String.valueOf(e));
+                    out.flush();
+                    continue;
+                }
+                out.writeByte(RESULT);
+                out.writeInt(shard);
+                result.writeTo(out);
+                out.flush();
+            }
+        } finally {
+            socket.close();
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7171;
+        new SimulationWorker(host, port).serve();
+    }
+}
@@ -0,0 +1,54 @@
+package com.snakeladder.spectator;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Minimal blocking subscriber, handy for watching a local server or
+ * checking the stream end to end on localhost.
+ */
+public class SpectatorClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(SpectatorEvent.LENGTH_PREFIX);
+    
+    public SpectatorClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+    }
+    
+    public SpectatorEvent nextEvent() throws IOException {
+        lengthBuffer.clear();
+        readFully(lengthBuffer);
+        lengthBuffer.flip();
+        ByteBuffer body = ByteBuffer.allocate(lengthBuffer.getShort() & 0xFFFF);
+        readFully(body);
+        body.flip();
+        return SpectatorEvent.decode(body);
+    }
+    
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Spectator stream closed");
+            }
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7070;
+        try (SpectatorClient client = new SpectatorClient(new InetSocketAddress(host, port))) {
+            while (true) {
+                System.out.println(client.nextEvent());
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.snakeladder.spectator;
+
+import com.snakeladder.service.Game;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One game event on the spectator wire. A frame is a 2-byte length followed
+ * by the game id (4), result type (1), dice roll (1), the player's position
+ * after the move (2), and the player's name as length-prefixed UTF-8.
+ */
+public class SpectatorEvent {
+    static final int LENGTH_PREFIX = 2;
+    private static final int FIXED_BODY = 4 + 1 + 1 + 2 + 1;
+    private static final int MAX_NAME_BYTES = 255;
+    
+    private final int gameId;
+    private final Game.GameResultType type;
+    private final int diceRoll;
+    private final int position;
+    private final String playerName;
+    
+    public SpectatorEvent(int gameId, Game.GameResultType type, int diceRoll, int position, String playerName) {
+        this.gameId = gameId;
+        this.type = type;
+        this.diceRoll = diceRoll;
+        this.position = position;
+        this.playerName = playerName;
+    }
+    
+    public static SpectatorEvent of(int gameId, Game.GameResult result) {
+        String name = result.getPlayer() != null ? result.getPlayer().getName() : "";
+        int position = result.getPlayer() != null ? result.getPlayer().getCurrentPosition() : 0;
+        return new SpectatorEvent(gameId, result.getType(), result.getDiceRoll(), position, name);
+    }
+    
+    public ByteBuffer encode() {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, MAX_NAME_BYTES);
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_PREFIX + FIXED_BODY + nameLength);
+        frame.putShort((short) (FIXED_BODY + nameLength));
+        frame.putInt(gameId);
+        frame.put((byte) type.ordinal());
+        frame.put((byte) diceRoll);
+        frame.putShort((short) position);
+        frame.put((byte) nameLength);
+        frame.put(name, 0, nameLength);
+        frame.flip();
+        return frame;
+    }
+    
+    // Reads one frame body (everything after the length prefix)
+    public static SpectatorEvent decode(ByteBuffer body) {
+        int gameId = body.getInt();
+        Game.GameResultType type = Game.GameResultType.values()[body.get()];
+        int diceRoll = body.get();
+        int position = body.getShort() & 0xFFFF;
+        byte[] name = new byte[body.get() & 0xFF];
+        body.get(name);
+        return new SpectatorEvent(gameId, type, diceRoll, position, new String(name, StandardCharsets.UTF_8));
+    }
+    
+    public int getGameId() { return gameId; }
+    public Game.GameResultType getType() { return type; }
+    public int getDiceRoll() { return diceRoll; }
+    public int getPosition() { return position; }
+    public String getPlayerName() { return playerName; }
+    
+    @Override
+    public String toString() {
+        return String.format("SpectatorEvent{game=%d, type=%s, player=%s, roll=%d, position=%d}",
+            gameId, type, playerName, diceRoll, position);
+    }
+}
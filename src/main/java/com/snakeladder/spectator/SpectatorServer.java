@@ -0,0 +1,247 @@
+package com.snakeladder.spectator;
+
+import com.snakeladder.service.Game;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams game events to spectators over plain TCP. The game thread only
+ * encodes each event once and hands it to the selector thread; the same
+ * bytes are then written to every subscriber without blocking. Subscribers
+ * that fall too far behind are either disconnected or have their oldest
+ * unsent events discarded, depending on the policy.
+ */
+public class SpectatorServer implements AutoCloseable {
+    public enum SlowConsumerPolicy {
+        DISCONNECT,
+        DROP_OLDEST
+    }
+    
+    public static final int DEFAULT_MAX_PENDING_FRAMES = 1024;
+    private static final int MAX_INBOX_FRAMES = 65536;
+    
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final SlowConsumerPolicy policy;
+    private final int maxPendingFrames;
+    private final ConcurrentLinkedQueue<ByteBuffer> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inboxSize = new AtomicInteger();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final Thread loopThread;
+    private volatile boolean running;
+    
+    private final AtomicLong framesPublished = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+    private final AtomicLong subscribersDropped = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    
+    public SpectatorServer(InetSocketAddress address) throws IOException {
+        this(address, SlowConsumerPolicy.DROP_OLDEST, DEFAULT_MAX_PENDING_FRAMES);
+    }
+    
+    public SpectatorServer(InetSocketAddress address, SlowConsumerPolicy policy, int maxPendingFrames)
+            throws IOException {
+        this.policy = policy;
+        this.maxPendingFrames = maxPendingFrames;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.loopThread = new Thread(this::runLoop, "spectator-selector");
+        loopThread.setDaemon(true);
+    }
+    
+    public void start() {
+        running = true;
+        loopThread.start();
+    }
+    
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+    
+    // Called from the game loop: encodes once and never blocks
+    public void publish(int gameId, Game.GameResult result) {
+        publishFrame(SpectatorEvent.of(gameId, result).encode());
+    }
+    
+    public void publishFrame(ByteBuffer frame) {
+        if (inboxSize.incrementAndGet() > MAX_INBOX_FRAMES) {
+            inboxSize.decrementAndGet();
+            framesDropped.incrementAndGet();
+            return;
+        }
+        inbox.offer(frame.asReadOnlyBuffer());
+        framesPublished.incrementAndGet();
+        selector.wakeup();
+    }
+    
+    public int getSubscriberCount() { return subscriberCount.get(); }
+    public long getFramesPublished() { return framesPublished.get(); }
+    public long getFramesDropped() { return framesDropped.get(); }
+    public long getSubscribersDropped() { return subscribersDropped.get(); }
+    
+    private void runLoop() {
+        try {
+            while (running) {
+                selector.select();
+                for (Iterator<SelectionKey> it = selector.selectedKeys().iterator(); it.hasNext(); ) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Subscriber subscriber = (Subscriber) key.attachment();
+                        if (key.isReadable()) {
+                            drainInput(subscriber);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(subscriber);
+                        }
+                    }
+                }
+                fanOut();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                System.err.println("Spectator server stopped: " + e.getMessage());
+            }
+        } finally {
+            // Only the selector thread touches subscribers, including on shutdown
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                drop(subscriber);
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // shutting down anyway
+            }
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Subscriber subscriber = new Subscriber(channel);
+            subscriber.key = channel.register(selector, SelectionKey.OP_READ, subscriber);
+            subscribers.add(subscriber);
+            subscriberCount.incrementAndGet();
+        }
+    }
+    
+    private void fanOut() {
+        ByteBuffer frame;
+        while (running && (frame = inbox.poll()) != null) {
+            inboxSize.decrementAndGet();
+            for (int i = subscribers.size() - 1; i >= 0; i--) {
+                Subscriber subscriber = subscribers.get(i);
+                if (subscriber.pending.size() >= maxPendingFrames && !makeRoom(subscriber)) {
+                    continue;
+                }
+                subscriber.pending.add(frame.duplicate());
+                flush(subscriber);
+            }
+        }
+    }
+    
+    private boolean makeRoom(Subscriber subscriber) {
+        if (policy == SlowConsumerPolicy.DISCONNECT) {
+            drop(subscriber);
+            subscribersDropped.incrementAndGet();
+            return false;
+        }
+        // Keep the head if it is partly written, otherwise the stream would be corrupted
+        ByteBuffer head = subscriber.pending.peekFirst();
+        boolean headStarted = head != null && head.position() > 0;
+        if (headStarted) {
+            ByteBuffer started = subscriber.pending.pollFirst();
+            subscriber.pending.pollFirst();
+            subscriber.pending.addFirst(started);
+        } else {
+            subscriber.pending.pollFirst();
+        }
+        framesDropped.incrementAndGet();
+        return true;
+    }
+    
+    private void flush(Subscriber subscriber) {
+        try {
+            while (!subscriber.pending.isEmpty()) {
+                ByteBuffer head = subscriber.pending.peekFirst();
+                subscriber.channel.write(head);
+                if (head.hasRemaining()) {
+                    subscriber.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                subscriber.pending.pollFirst();
+            }
+            subscriber.key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException | CancelledKeyException e) {
+            drop(subscriber);
+        }
+    }
+    
+    // Spectators never send anything meaningful; reading only detects hang-ups
+    private void drainInput(Subscriber subscriber) {
+        try {
+            subscriber.scratch.clear();
+            if (subscriber.channel.read(subscriber.scratch) < 0) {
+                drop(subscriber);
+            }
+        } catch (IOException e) {
+            drop(subscriber);
+        }
+    }
+    
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+        subscriber.key.cancel();
+        try {
+            subscriber.channel.close();
+        } catch (IOException ignored) {
+            // already going away
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        if (!loopThread.isAlive()) {
+            serverChannel.close();
+            selector.close();
+            return;
+        }
+        try {
+            loopThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static class Subscriber {
+        final SocketChannel channel;
+        final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        final ByteBuffer scratch = ByteBuffer.allocate(256);
+        SelectionKey key;
+        
+        Subscriber(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+}
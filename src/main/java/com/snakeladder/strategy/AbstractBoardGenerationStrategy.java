@@ -28,6 +28,7 @@ public abstract class AbstractBoardGenerationStrategy implements BoardGeneration
         entities.addAll(ladders);
         
         postProcessEntities(entities, totalCells);
+        BoardValidator.STANDARD.repair(totalCells, entities);
         
         return entities;
     }
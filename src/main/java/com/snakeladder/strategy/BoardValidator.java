@@ -0,0 +1,308 @@
+package com.snakeladder.strategy;
+
+import com.snakeladder.model.Board;
+import com.snakeladder.model.BoardEntity;
+import com.snakeladder.model.DieModel;
+import java.util.*;
+
+/**
+ * Checks that a layout is playable: every cell a player could stand on is
+ * reachable from the start, and from every reachable cell the last cell
+ * can still be reached with an exact roll. The second condition is what
+ * makes a game end with probability one; a board that breaks it has a
+ * region players can enter but never leave towards the finish. Limits the
+ * rules put on every board, like a total the dice cannot roll, are not
+ * held against the layout.
+ *
+ * Both searches are fixed points over one bit per cell, every roll moving
+ * the whole set at once with word shifts, so a 15x15 board is checked in
+ * a few microseconds and generators can check every board they make.
+ */
+public final class BoardValidator {
+    public static final int NO_CELL = -1;
+    public static final BoardValidator STANDARD = new BoardValidator(DieModel.STANDARD);
+    
+    private final int[] rolls;
+    
+    public BoardValidator(DieModel die) {
+        int[] possible = new int[die.getMaxRoll() - die.getMinRoll() + 1];
+        int count = 0;
+        for (int roll = die.getMinRoll(); roll <= die.getMaxRoll(); roll++) {
+            if (die.getProbability(roll) > 0) {
+                possible[count++] = roll;
+            }
+        }
+        this.rolls = Arrays.copyOf(possible, count);
+    }
+    
+    // Uses the board's own destinations, so chaining is taken into account
+    public Report validate(Board board) {
+        int totalCells = board.getTotalCells();
+        int[] destinations = new int[totalCells + 1];
+        for (int cell = 0; cell <= totalCells; cell++) {
+            destinations[cell] = board.transformPosition(cell);
+        }
+        return check(totalCells, destinations);
+    }
+    
+    // Entities are followed one hop, as on an unchained board
+    public Report validate(int totalCells, List<? extends BoardEntity> entities) {
+        int[] destinations = new int[totalCells + 1];
+        for (int cell = 0; cell <= totalCells; cell++) {
+            destinations[cell] = cell;
+        }
+        for (BoardEntity entity : entities) {
+            int start = entity.getStartPosition();
+            int end = entity.getEndPosition();
+            if (start > 0 && start <= totalCells && end >= 0 && end <= totalCells) {
+                destinations[start] = end;
+            }
+        }
+        return check(totalCells, destinations);
+    }
+    
+    // Removes entities until the layout is valid and returns how many went.
+    // A trapped region loses the nearest entity above it, the one most
+    // likely to be throwing players back into it; an unreachable cell loses
+    // the nearest entity below it, which is part of the wall in front of it.
+    // No random numbers are drawn, so valid boards come out unchanged.
+    public int repair(int totalCells, List<? extends BoardEntity> entities) {
+        int removed = 0;
+        Report report = validate(totalCells, entities);
+        while (!report.isValid()) {
+            BoardEntity culprit = report.getTrappedCount() > 0
+                ? nearestEntity(entities, totalCells, report.getLastTrapped(), true)
+                : nearestEntity(entities, totalCells, report.getFirstUnreachable(), false);
+            if (culprit == null) {
+                throw new IllegalStateException("Board cannot be repaired: " + report);
+            }
+            entities.remove(culprit);
+            removed++;
+            report = validate(totalCells, entities);
+        }
+        return removed;
+    }
+    
+    // Nearest moving entity on the given side of the cell, or any moving
+    // entity if that side has none
+    private static BoardEntity nearestEntity(List<? extends BoardEntity> entities, int totalCells,
+                                             int cell, boolean above) {
+        BoardEntity nearest = null;
+        BoardEntity fallback = null;
+        int nearestDistance = Integer.MAX_VALUE;
+        for (BoardEntity entity : entities) {
+            int start = entity.getStartPosition();
+            if (start <= 0 || start > totalCells || entity.getEndPosition() == start) {
+                continue;
+            }
+            fallback = entity;
+            int distance = above ? start - cell : cell - start;
+            if (distance > 0 && distance < nearestDistance) {
+                nearest = entity;
+                nearestDistance = distance;
+            }
+        }
+        return nearest != null ? nearest : fallback;
+    }
+    
+    private Report check(int totalCells, int[] destinations) {
+        int words = (totalCells >>> 6) + 1;
+        long lastMask = -1L >>> (63 - (totalCells & 63));
+        long[] moving = new long[words];
+        for (int cell = 1; cell <= totalCells; cell++) {
+            if (destinations[cell] != cell) {
+                moving[cell >>> 6] |= 1L << cell;
+            }
+        }
+        
+        long[] reachable = reachable(words, lastMask, destinations, moving);
+        long[] finishing = finishing(totalCells, words, destinations, moving);
+        long[] unreachable = new long[words];
+        long[] trapped = new long[words];
+        boolean problems = false;
+        for (int i = 0; i < words; i++) {
+            long standable = i == words - 1 ? ~moving[i] & lastMask : ~moving[i];
+            unreachable[i] = standable & ~reachable[i];
+            trapped[i] = reachable[i] & ~finishing[i];
+            problems |= (unreachable[i] | trapped[i]) != 0;
+        }
+        
+        if (problems) {
+            // Only what an empty board of the same size would not have
+            long[] none = new long[words];
+            long[] baseReachable = reachable(words, lastMask, destinations, none);
+            long[] baseFinishing = finishing(totalCells, words, destinations, none);
+            for (int i = 0; i < words; i++) {
+                unreachable[i] &= baseReachable[i];
+                trapped[i] &= baseFinishing[i];
+            }
+        }
+        return new Report(unreachable, trapped);
+    }
+    
+    // Cells a player can stand on after some sequence of rolls from 0.
+    // Each round only moves the cells found in the previous one, and each
+    // moving cell is followed the first time it is landed on
+    private long[] reachable(int words, long lastMask, int[] destinations, long[] moving) {
+        long[] reached = new long[words];
+        long[] frontier = new long[words];
+        long[] landed = new long[words];
+        long[] landing = new long[words];
+        reached[0] = 1L;
+        frontier[0] = 1L;
+        boolean grew = true;
+        while (grew) {
+            Arrays.fill(landing, 0L);
+            for (int roll : rolls) {
+                orShiftedUp(frontier, roll, landing);
+            }
+            landing[words - 1] &= lastMask; // past the last cell the player stays put
+            Arrays.fill(frontier, 0L);
+            for (int i = 0; i < words; i++) {
+                long fresh = landing[i] & ~landed[i];
+                landed[i] |= fresh;
+                frontier[i] |= fresh & ~moving[i];
+                for (long jumps = fresh & moving[i]; jumps != 0; jumps &= jumps - 1) {
+                    int end = destinations[(i << 6) + Long.numberOfTrailingZeros(jumps)];
+                    frontier[end >>> 6] |= 1L << end;
+                }
+            }
+            grew = false;
+            for (int i = 0; i < words; i++) {
+                frontier[i] &= ~reached[i];
+                reached[i] |= frontier[i];
+                grew |= frontier[i] != 0;
+            }
+        }
+        return reached;
+    }
+    
+    // Cells from which some sequence of rolls ends exactly on the last cell,
+    // searched backwards from it with the moving cells indexed by where they
+    // lead
+    private long[] finishing(int totalCells, int words, int[] destinations, long[] moving) {
+        int[] firstInto = new int[totalCells + 1];
+        int[] nextInto = new int[totalCells + 1];
+        Arrays.fill(firstInto, NO_CELL);
+        for (int i = 0; i < words; i++) {
+            for (long jumps = moving[i]; jumps != 0; jumps &= jumps - 1) {
+                int start = (i << 6) + Long.numberOfTrailingZeros(jumps);
+                nextInto[start] = firstInto[destinations[start]];
+                firstInto[destinations[start]] = start;
+            }
+        }
+        
+        long[] finishes = new long[words];
+        long[] frontier = new long[words];
+        long[] landable = new long[words];
+        long[] before = new long[words];
+        finishes[totalCells >>> 6] |= 1L << totalCells;
+        frontier[totalCells >>> 6] |= 1L << totalCells;
+        boolean grew = true;
+        while (grew) {
+            // Landing cells that leave the player on a newly found cell
+            Arrays.fill(landable, 0L);
+            for (int i = 0; i < words; i++) {
+                landable[i] |= frontier[i] & ~moving[i];
+                for (long found = frontier[i]; found != 0; found &= found - 1) {
+                    int cell = (i << 6) + Long.numberOfTrailingZeros(found);
+                    for (int start = firstInto[cell]; start != NO_CELL; start = nextInto[start]) {
+                        landable[start >>> 6] |= 1L << start;
+                    }
+                }
+            }
+            Arrays.fill(before, 0L);
+            for (int roll : rolls) {
+                orShiftedDown(landable, roll, before);
+            }
+            grew = false;
+            for (int i = 0; i < words; i++) {
+                frontier[i] = before[i] & ~finishes[i];
+                finishes[i] |= frontier[i];
+                grew |= frontier[i] != 0;
+            }
+        }
+        return finishes;
+    }
+    
+    // target |= source << shift, across words
+    private static void orShiftedUp(long[] source, int shift, long[] target) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = target.length - 1; i >= wordShift; i--) {
+            long word = source[i - wordShift] << bitShift;
+            if (bitShift != 0 && i - wordShift > 0) {
+                word |= source[i - wordShift - 1] >>> (64 - bitShift);
+            }
+            target[i] |= word;
+        }
+    }
+    
+    // target |= source >>> shift, across words
+    private static void orShiftedDown(long[] source, int shift, long[] target) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        for (int i = 0; i + wordShift < source.length; i++) {
+            long word = source[i + wordShift] >>> bitShift;
+            if (bitShift != 0 && i + wordShift + 1 < source.length) {
+                word |= source[i + wordShift + 1] << (64 - bitShift);
+            }
+            target[i] |= word;
+        }
+    }
+    
+    /** What is wrong with a layout, if anything. */
+    public static final class Report {
+        private final long[] unreachable;
+        private final long[] trapped;
+        
+        Report(long[] unreachable, long[] trapped) {
+            this.unreachable = unreachable;
+            this.trapped = trapped;
+        }
+        
+        public boolean isValid() {
+            return getUnreachableCount() == 0 && getTrappedCount() == 0;
+        }
+        
+        // Plain cells no sequence of rolls ever stops on
+        public int getUnreachableCount() { return count(unreachable); }
+        // Reachable cells from which the last cell can never be reached
+        public int getTrappedCount() { return count(trapped); }
+        
+        public int getFirstUnreachable() {
+            for (int i = 0; i < unreachable.length; i++) {
+                if (unreachable[i] != 0) {
+                    return (i << 6) + Long.numberOfTrailingZeros(unreachable[i]);
+                }
+            }
+            return NO_CELL;
+        }
+        
+        public int getLastTrapped() {
+            for (int i = trapped.length - 1; i >= 0; i--) {
+                if (trapped[i] != 0) {
+                    return (i << 6) + 63 - Long.numberOfLeadingZeros(trapped[i]);
+                }
+            }
+            return NO_CELL;
+        }
+        
+        private static int count(long[] cells) {
+            int count = 0;
+            for (long word : cells) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+        
+        @Override
+        public String toString() {
+            if (isValid()) {
+                return "valid";
+            }
+            return String.format("%d unreachable cells (first %d), %d trapped cells (last %d)",
+                getUnreachableCount(), getFirstUnreachable(), getTrappedCount(), getLastTrapped());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.snakeladder.strategy;
+
+import com.snakeladder.model.*;
+import com.snakeladder.optimizer.BoardObjective;
+import com.snakeladder.optimizer.BoardOptimizer;
+import com.snakeladder.optimizer.OptimizationResult;
+import java.util.*;
+
+/**
+ * Starts from a balanced layout with the level's snake and ladder counts
+ * and anneals it towards an objective. By default the objective asks for
+ * a single player to need about 0.3 turns per cell on average, with the
+ * two-player seat spread under 2%.
+ *
+ * The search budget is small, about 130 scored edits, so a 15x15 board
+ * still generates in well under a second for the interactive menu and for
+ * sessions that rebuild their board from its seed. Starting from a
+ * balanced layout, that is enough to land within a fraction of a percent
+ * of the default objective; use BoardOptimizer directly for longer runs.
+ */
+public class OptimizedBoardGenerationStrategy implements BoardGenerationStrategy {
+    public static final double DEFAULT_TURNS_PER_CELL = 0.3;
+    public static final double DEFAULT_MAX_SEAT_SPREAD = 0.02;
+    private static final int CHAINS = 2;
+    private static final int ROUNDS = 8;
+    private static final int STEPS_PER_ROUND = 8;
+    
+    private final Random seeds;
+    private final BoardObjective objective;
+    private OptimizationResult lastResult;
+    
+    public OptimizedBoardGenerationStrategy() {
+        this(new Random().nextLong());
+    }
+    
+    public OptimizedBoardGenerationStrategy(long seed) {
+        this(seed, null);
+    }
+    
+    // A null objective picks the default for each board size
+    public OptimizedBoardGenerationStrategy(long seed, BoardObjective objective) {
+        this.seeds = new Random(seed);
+        this.objective = objective;
+    }
+    
+    @Override
+    public List<BoardEntity> generateEntities(int totalCells, GameLevelInterface level) {
+        long boardSeed;
+        synchronized (seeds) {
+            boardSeed = seeds.nextLong();
+        }
+        int size = (int) Math.round(Math.sqrt(totalCells));
+        List<BoardEntity> initial = new BalancedBoardGenerationStrategy(boardSeed).generateEntities(totalCells, level);
+        BoardObjective goal = objective != null ? objective
+            : BoardObjective.expectedTurns(totalCells * DEFAULT_TURNS_PER_CELL)
+                .plus(BoardObjective.seatSpread(2, DEFAULT_MAX_SEAT_SPREAD));
+        
+        BoardOptimizer optimizer = new BoardOptimizer(goal, DieModel.STANDARD, CHAINS, ROUNDS,
+            STEPS_PER_ROUND, BoardOptimizer.DEFAULT_START_TEMPERATURE, BoardOptimizer.DEFAULT_END_TEMPERATURE,
+            true, boardSeed);
+        OptimizationResult result = optimizer.optimize(size, initial);
+        synchronized (this) {
+            lastResult = result;
+        }
+        // Annealing edits can wall off or trap cells the balanced start kept open
+        List<BoardEntity> entities = result.getBoard().getAllEntities();
+        BoardValidator.STANDARD.repair(totalCells, entities);
+        return entities;
+    }
+    
+    // Score trace and counters of the most recent board this strategy
+    // generated; the result's board is the annealed one, before any repair
+    public synchronized OptimizationResult getLastResult() {
+        return lastResult;
+    }
+}
@@ -47,6 +47,10 @@ public class RandomBoardGenerationStrategy implements BoardGenerationStrategy {
             }
         }
         
+        // Unlike the spaced strategies, nothing above stops a run of snake
+        // heads and ladder bottoms from walling off part of the board
+        BoardValidator.STANDARD.repair(totalCells, entityList);
+        
         return entityList;
     }
     
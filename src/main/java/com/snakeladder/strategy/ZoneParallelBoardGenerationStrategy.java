@@ -0,0 +1,177 @@
+package com.snakeladder.strategy;
+
+import com.snakeladder.model.*;
+import com.snakeladder.util.Mix64;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Balanced distribution for very large boards, with the zones generated
+ * concurrently. Every zone draws from its own RNG stream derived from the
+ * board seed and tracks its own occupancy; a sequential merge in zone order
+ * then resolves cross-zone ladder tops and spacing, so the result for a
+ * given seed does not depend on the number of threads.
+ *
+ * Zones run on the common fork-join pool unless a pool is supplied, so
+ * generating a board never starts or stops threads of its own.
+ */
+public class ZoneParallelBoardGenerationStrategy implements BoardGenerationStrategy {
+    private static final int MIN_SPACING = 3;
+    private static final int MAX_ATTEMPTS = 50;
+    
+    private final Random seeds;
+    private final ExecutorService pool;
+    
+    public ZoneParallelBoardGenerationStrategy() {
+        this(new Random().nextLong());
+    }
+    
+    public ZoneParallelBoardGenerationStrategy(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+    
+    // The pool is shared, not owned: it is never shut down here
+    public ZoneParallelBoardGenerationStrategy(long seed, ExecutorService pool) {
+        this.seeds = new Random(seed);
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+    
+    @Override
+    public List<BoardEntity> generateEntities(int totalCells, GameLevelInterface level) {
+        long boardSeed;
+        synchronized (seeds) {
+            boardSeed = seeds.nextLong();
+        }
+        
+        int snakeCount = (int) (totalCells * level.getSnakeRatio());
+        int ladderCount = (int) (totalCells * level.getLadderRatio());
+        int zones = Math.max(1, (int) Math.sqrt(totalCells / 10));
+        
+        List<Callable<ZoneCandidates>> tasks = new ArrayList<>(zones);
+        for (int zone = 0; zone < zones; zone++) {
+            int zoneStart = (int) ((long) totalCells * zone / zones) + 1;
+            int zoneEnd = (int) ((long) totalCells * (zone + 1) / zones);
+            int snakes = share(snakeCount, zone, zones);
+            int ladders = share(ladderCount, zone, zones);
+            long zoneSeed = Mix64.mix(boardSeed + zone * 0x9E3779B97F4A7C15L);
+            tasks.add(() -> generateZone(zoneStart, zoneEnd, totalCells, snakes, ladders, zoneSeed));
+        }
+        
+        List<ZoneCandidates> candidates = new ArrayList<>(zones);
+        try {
+            for (Future<ZoneCandidates> future : pool.invokeAll(tasks)) {
+                candidates.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating board zones", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Zone generation failed", e.getCause());
+        }
+        
+        return merge(candidates, totalCells);
+    }
+    
+    private static int share(int total, int zone, int zones) {
+        return (int) ((long) total * (zone + 1) / zones - (long) total * zone / zones);
+    }
+    
+    private ZoneCandidates generateZone(int zoneStart, int zoneEnd, int totalCells,
+                                        int snakeCount, int ladderCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BitSet occupied = new BitSet(zoneEnd - zoneStart + 1);
+        ZoneCandidates zone = new ZoneCandidates(snakeCount + ladderCount);
+        
+        int snakeMinDistance = Math.max(2, (zoneEnd - zoneStart) / 8);
+        int headStart = Math.max(zoneStart + snakeMinDistance, zoneStart + (zoneEnd - zoneStart) / 2);
+        for (int i = 0; i < snakeCount && headStart < zoneEnd; i++) {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                int head = random.nextInt(headStart, zoneEnd);
+                int maxTail = Math.min(head - snakeMinDistance, zoneEnd);
+                if (maxTail <= zoneStart) {
+                    continue;
+                }
+                int tail = random.nextInt(zoneStart, maxTail);
+                if (!occupied.get(head - zoneStart) && !occupied.get(tail - zoneStart)) {
+                    occupied.set(head - zoneStart);
+                    occupied.set(tail - zoneStart);
+                    zone.add(head, tail);
+                    break;
+                }
+            }
+        }
+        
+        int ladderMinDistance = Math.max(3, (zoneEnd - zoneStart) / 10);
+        int bottomEnd = zoneStart + (zoneEnd - zoneStart) / 2;
+        for (int i = 0; i < ladderCount && bottomEnd > zoneStart; i++) {
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                int bottom = random.nextInt(zoneStart, bottomEnd);
+                int minTop = bottom + ladderMinDistance;
+                if (minTop >= totalCells) {
+                    continue;
+                }
+                int top = random.nextInt(minTop, totalCells);
+                // Tops outside this zone are only checked against other zones at merge time
+                boolean topInZone = top <= zoneEnd;
+                if (!occupied.get(bottom - zoneStart) && !(topInZone && occupied.get(top - zoneStart))) {
+                    occupied.set(bottom - zoneStart);
+                    if (topInZone) {
+                        occupied.set(top - zoneStart);
+                    }
+                    zone.add(bottom, top);
+                    break;
+                }
+            }
+        }
+        return zone;
+    }
+    
+    private List<BoardEntity> merge(List<ZoneCandidates> zones, int totalCells) {
+        BitSet occupied = new BitSet(totalCells + 1);
+        List<BoardEntity> accepted = new ArrayList<>();
+        
+        for (ZoneCandidates zone : zones) {
+            for (int i = 0; i < zone.size; i++) {
+                int start = zone.starts[i];
+                int end = zone.ends[i];
+                if (occupied.get(start) || occupied.get(end)) {
+                    continue;
+                }
+                occupied.set(start);
+                occupied.set(end);
+                accepted.add(start > end ? new Snake(start, end) : new Ladder(start, end));
+            }
+        }
+        
+        // Same rule as the balanced strategy: drop entities whose starts sit closer than MIN_SPACING
+        accepted.sort(Comparator.comparingInt(BoardEntity::getStartPosition));
+        List<BoardEntity> spaced = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            int start = accepted.get(i).getStartPosition();
+            boolean closeBefore = i > 0 && start - accepted.get(i - 1).getStartPosition() < MIN_SPACING;
+            boolean closeAfter = i + 1 < accepted.size() && accepted.get(i + 1).getStartPosition() - start < MIN_SPACING;
+            if (!closeBefore && !closeAfter) {
+                spaced.add(accepted.get(i));
+            }
+        }
+        BoardValidator.STANDARD.repair(totalCells, spaced);
+        return spaced;
+    }
+    
+    private static class ZoneCandidates {
+        final int[] starts;
+        final int[] ends;
+        int size;
+        
+        ZoneCandidates(int capacity) {
+            starts = new int[capacity];
+            ends = new int[capacity];
+        }
+        
+        void add(int start, int end) {
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+    }
+}
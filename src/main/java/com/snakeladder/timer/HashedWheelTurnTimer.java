@@ -0,0 +1,291 @@
+package com.snakeladder.timer;
+
+import com.snakeladder.service.Game;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Turn deadlines for many sessions on one hashed timing wheel. Scheduling
+ * and cancelling only enqueue a command; the wheel thread links or unlinks
+ * the timeout in its bucket in O(1). Each tick the thread walks one bucket
+ * and hands the expired timeouts to the worker pool in batches, where each
+ * turn is auto-played under the game's monitor.
+ *
+ * Deadlines are rounded up to the tick, so a turn fires up to one tick
+ * late even on an idle machine; lag beyond that is what the metrics show.
+ */
+public class HashedWheelTurnTimer implements AutoCloseable {
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    public static final long DEFAULT_TICK_MILLIS = 100;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final int batchSize;
+    private final ExecutorService workers;
+    private final boolean ownsWorkers;
+    private final TurnTimeoutListener listener;
+    private final ConcurrentLinkedQueue<TurnTimeout> scheduledQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<TurnTimeout> cancelledQueue = new ConcurrentLinkedQueue<>();
+    private final Thread wheelThread;
+    private volatile boolean running;
+    private volatile long startNanos;
+    private long tick;
+    
+    private final AtomicLong pending = new AtomicLong();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalFireLagNanos = new LongAdder();
+    private final AtomicLong maxFireLagNanos = new AtomicLong();
+    private volatile long maxTickLagNanos;
+    private volatile long lastTickLagNanos;
+    
+    public HashedWheelTurnTimer(TurnTimeoutListener listener) {
+        this(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE, DEFAULT_BATCH_SIZE, null, listener);
+    }
+    
+    // A null pool gives the timer its own, sized to the machine
+    public HashedWheelTurnTimer(long tickDuration, TimeUnit unit, int wheelSize, int batchSize,
+                                ExecutorService workers, TurnTimeoutListener listener) {
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+        this.batchSize = Math.max(1, batchSize);
+        this.ownsWorkers = workers == null;
+        this.workers = ownsWorkers
+            ? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())
+            : workers;
+        this.listener = listener;
+        this.wheelThread = new Thread(this::runWheel, "turn-timer-wheel");
+        wheelThread.setDaemon(true);
+    }
+    
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        startNanos = System.nanoTime();
+        running = true;
+        wheelThread.start();
+    }
+    
+    public TurnTimeout schedule(long sessionId, Game game, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer is not running");
+        }
+        TurnTimeout timeout = new TurnTimeout(this, sessionId, game, System.nanoTime() + unit.toNanos(delay));
+        pending.incrementAndGet();
+        scheduledQueue.add(timeout);
+        return timeout;
+    }
+    
+    void cancelled(TurnTimeout timeout) {
+        pending.decrementAndGet();
+        cancelledCount.increment();
+        cancelledQueue.add(timeout);
+    }
+    
+    public long getPending() { return pending.get(); }
+    public long getFired() { return fired.sum(); }
+    public long getCancelled() { return cancelledCount.sum(); }
+    public long getBatches() { return batches.sum(); }
+    
+    // How late the wheel thread woke for its most recent and its worst tick
+    public double getLastTickLagMillis() { return lastTickLagNanos / 1e6; }
+    public double getMaxTickLagMillis() { return maxTickLagNanos / 1e6; }
+    
+    // Deadline to the moment a worker played the turn
+    public double getMaxFireLagMillis() { return maxFireLagNanos.get() / 1e6; }
+    
+    public double getAverageFireLagMillis() {
+        long count = fired.sum();
+        return count == 0 ? 0 : totalFireLagNanos.sum() / 1e6 / count;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("HashedWheelTurnTimer{pending=%d, fired=%d, cancelled=%d, batches=%d, "
+                + "tickLag=%.1fms (max %.1fms), fireLag avg %.1fms (max %.1fms)",
+            getPending(), getFired(), getCancelled(), getBatches(), getLastTickLagMillis(),
+            getMaxTickLagMillis(), getAverageFireLagMillis(), getMaxFireLagMillis());
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(wheelThread);
+        if (wheelThread.isAlive()) {
+            try {
+                wheelThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (ownsWorkers) {
+            workers.shutdown();
+        }
+    }
+    
+    private void runWheel() {
+        while (running) {
+            long tickEnd = startNanos + (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime()) < tickEnd && running) {
+                LockSupport.parkNanos(tickEnd - now);
+            }
+            if (!running) {
+                break;
+            }
+            long lag = now - tickEnd;
+            lastTickLagNanos = lag;
+            if (lag > maxTickLagNanos) {
+                maxTickLagNanos = lag;
+            }
+            
+            transferScheduled();
+            removeCancelled();
+            expire(wheel[(int) (tick & mask)], now);
+            tick++;
+        }
+    }
+    
+    private void transferScheduled() {
+        TurnTimeout timeout;
+        while ((timeout = scheduledQueue.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = (timeout.getDeadlineNanos() - startNanos) / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // Deadlines already behind the wheel go in the bucket expiring now
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+    
+    private void removeCancelled() {
+        TurnTimeout timeout;
+        while ((timeout = cancelledQueue.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+    
+    private void expire(Bucket bucket, long now) {
+        List<TurnTimeout> batch = null;
+        TurnTimeout timeout = bucket.head;
+        while (timeout != null) {
+            TurnTimeout next = timeout.next;
+            if (timeout.remainingRounds <= 0) {
+                bucket.remove(timeout);
+                if (!timeout.isCancelled()) {
+                    if (batch == null) {
+                        batch = new ArrayList<>(Math.min(batchSize, 64));
+                    }
+                    batch.add(timeout);
+                    if (batch.size() == batchSize) {
+                        dispatch(batch);
+                        batch = null;
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+            timeout = next;
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+    
+    private void dispatch(List<TurnTimeout> batch) {
+        batches.increment();
+        try {
+            workers.execute(() -> autoPlay(batch));
+        } catch (RejectedExecutionException e) {
+            // Pool shut down underneath us; the timeouts stay pending
+            System.err.println("Turn timer could not dispatch " + batch.size() + " timeouts: " + e.getMessage());
+        }
+    }
+    
+    private void autoPlay(List<TurnTimeout> batch) {
+        for (TurnTimeout timeout : batch) {
+            Game game = timeout.getGame();
+            synchronized (game) {
+                // Losing this race means the player moved or the session went away
+                if (!timeout.expire()) {
+                    continue;
+                }
+                pending.decrementAndGet();
+                if (game.isGameEnded()) {
+                    continue;
+                }
+                long lag = System.nanoTime() - timeout.getDeadlineNanos();
+                totalFireLagNanos.add(lag);
+                maxFireLagNanos.accumulateAndGet(lag, Math::max);
+                fired.increment();
+                
+                Game.GameResult result = game.playTurn();
+                if (listener != null) {
+                    try {
+                        listener.onAutoPlay(timeout, result);
+                    } catch (RuntimeException e) {
+                        System.err.println("Turn timeout listener failed for session "
+                            + timeout.getSessionId() + ": " + e);
+                    }
+                }
+            }
+        }
+    }
+    
+    // Intrusive doubly linked list of the timeouts due in one slot
+    static final class Bucket {
+        TurnTimeout head;
+        TurnTimeout tail;
+        
+        void add(TurnTimeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+        
+        void remove(TurnTimeout timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.next = null;
+            timeout.previous = null;
+            timeout.bucket = null;
+        }
+    }
+}
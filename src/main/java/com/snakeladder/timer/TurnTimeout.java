@@ -0,0 +1,70 @@
+package com.snakeladder.timer;
+
+import com.snakeladder.service.Game;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A pending turn deadline for one session. Doubles as the intrusive list
+ * node of its wheel bucket, so scheduling and cancelling allocate nothing
+ * beyond the timeout itself.
+ */
+public class TurnTimeout {
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+    private static final AtomicIntegerFieldUpdater<TurnTimeout> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(TurnTimeout.class, "state");
+    
+    private final HashedWheelTurnTimer timer;
+    private final long sessionId;
+    private final Game game;
+    private final long deadlineNanos;
+    private volatile int state = PENDING;
+    
+    // Owned by the wheel thread
+    long remainingRounds;
+    TurnTimeout next;
+    TurnTimeout previous;
+    HashedWheelTurnTimer.Bucket bucket;
+    
+    TurnTimeout(HashedWheelTurnTimer timer, long sessionId, Game game, long deadlineNanos) {
+        this.timer = timer;
+        this.sessionId = sessionId;
+        this.game = game;
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    // True if this call stopped the timeout before it fired
+    public boolean cancel() {
+        if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+            return false;
+        }
+        timer.cancelled(this);
+        return true;
+    }
+    
+    // Claimed by the worker that auto-plays the turn
+    boolean expire() {
+        return STATE.compareAndSet(this, PENDING, EXPIRED);
+    }
+    
+    public boolean isCancelled() {
+        return state == CANCELLED;
+    }
+    
+    public boolean isExpired() {
+        return state == EXPIRED;
+    }
+    
+    public long getSessionId() {
+        return sessionId;
+    }
+    
+    public Game getGame() {
+        return game;
+    }
+    
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+}
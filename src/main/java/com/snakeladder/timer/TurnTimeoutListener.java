@@ -0,0 +1,13 @@
+package com.snakeladder.timer;
+
+import com.snakeladder.service.Game;
+
+/**
+ * Told about every auto-played turn. Runs on a timer worker while it holds
+ * the game's monitor, so rescheduling the next deadline here cannot race a
+ * human turn that synchronizes on the same game.
+ */
+@FunctionalInterface
+public interface TurnTimeoutListener {
+    void onAutoPlay(TurnTimeout timeout, Game.GameResult result);
+}
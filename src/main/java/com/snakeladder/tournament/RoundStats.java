@@ -0,0 +1,66 @@
+package com.snakeladder.tournament;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RoundStats {
+    private final int round;
+    private final int totalMatches;
+    private final AtomicInteger completedMatches = new AtomicInteger();
+    private final AtomicLong firstStartNanos = new AtomicLong();
+    private volatile long lastFinishNanos;
+    
+    RoundStats(int round, int totalMatches) {
+        this.round = round;
+        this.totalMatches = totalMatches;
+    }
+    
+    void markStarted() {
+        if (firstStartNanos.get() == 0) {
+            firstStartNanos.compareAndSet(0, System.nanoTime());
+        }
+    }
+    
+    void markCompleted() {
+        if (completedMatches.incrementAndGet() == totalMatches) {
+            lastFinishNanos = System.nanoTime();
+        }
+    }
+    
+    public int getRound() {
+        return round;
+    }
+    
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+    
+    public int getCompletedMatches() {
+        return completedMatches.get();
+    }
+    
+    public boolean isFinished() {
+        return completedMatches.get() == totalMatches;
+    }
+    
+    public double getProgress() {
+        return (double) completedMatches.get() / totalMatches;
+    }
+    
+    // Matches per second from the round's first start until now, or until it finished
+    public double getThroughput() {
+        long start = firstStartNanos.get();
+        if (start == 0) {
+            return 0;
+        }
+        long end = lastFinishNanos;
+        long elapsed = Math.max(1, (end != 0 ? end : System.nanoTime()) - start);
+        return completedMatches.get() * 1e9 / elapsed;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Round %d: %d/%d matches, %.0f matches/s",
+            round + 1, getCompletedMatches(), totalMatches, getThroughput());
+    }
+}
@@ -0,0 +1,221 @@
+package com.snakeladder.tournament;
+
+import com.snakeladder.builder.BoardConfiguration;
+import com.snakeladder.model.Board;
+import com.snakeladder.model.Dice;
+import com.snakeladder.service.Game;
+import com.snakeladder.util.Mix64;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Single-elimination bracket of two-player games. Matches run as tasks on a
+ * work-stealing ForkJoinPool and a match is forked the moment both of its
+ * feeder matches have finished, so rounds overlap instead of waiting for
+ * each other. Every round plays on one shared board, and every match rolls
+ * dice seeded from its bracket slot, so the champion depends only on the seed.
+ *
+ * Seats alternate with the match's global index so the first player's edge
+ * is not handed to the same side of every pairing. A match that reaches
+ * MAX_TURNS without a winner goes to whichever entrant is further along,
+ * and a tie to the lower entrant id.
+ */
+public class Tournament {
+    private static final int LEAF_BATCH = 64;
+    private static final int NO_ENTRANT = -1;
+    private static final int MAX_TURNS = 10_000;
+    
+    private final int entrants;
+    private final long seed;
+    private final Board[] roundBoards;
+    private final int[][] winners;                // [round][match] -> entrant id
+    private final AtomicIntegerArray[] pending;   // [round][match] -> feeder matches still running
+    private final int[] roundOffsets;             // global index of each round's first match
+    private final RoundStats[] stats;
+    private final CompletableFuture<Integer> champion = new CompletableFuture<>();
+    
+    public Tournament(BoardConfiguration config, int entrants, long seed) {
+        if (entrants < 1) {
+            throw new IllegalArgumentException("A tournament needs at least one entrant");
+        }
+        this.entrants = entrants;
+        this.seed = seed;
+        
+        List<Integer> matchesPerRound = new ArrayList<>();
+        for (int remaining = entrants; remaining > 1; remaining = (remaining + 1) / 2) {
+            matchesPerRound.add((remaining + 1) / 2);
+        }
+        int rounds = matchesPerRound.size();
+        
+        this.roundBoards = new Board[rounds];
+        this.winners = new int[rounds][];
+        this.pending = new AtomicIntegerArray[rounds];
+        this.roundOffsets = new int[rounds];
+        this.stats = new RoundStats[rounds];
+        
+        int offset = 0;
+        int inputs = entrants;
+        for (int round = 0; round < rounds; round++) {
+            int matches = matchesPerRound.get(round);
+            // Built in round order so a seeded strategy yields the same boards every run
+            roundBoards[round] = new Board(config.getBoardSize(), config.getGameLevel(), config.getStrategy(),
+                config.isChainTransforms());
+            winners[round] = new int[matches];
+            pending[round] = new AtomicIntegerArray(matches);
+            for (int match = 0; match < matches; match++) {
+                pending[round].set(match, 2 * match + 1 < inputs ? 2 : 1);
+            }
+            roundOffsets[round] = offset;
+            stats[round] = new RoundStats(round, matches);
+            offset += matches;
+            inputs = matches;
+        }
+    }
+    
+    public CompletableFuture<Integer> start(ForkJoinPool pool) {
+        if (stats.length == 0) {
+            champion.complete(0);
+        } else {
+            pool.execute(new FirstRound(0, winners[0].length));
+        }
+        return champion;
+    }
+    
+    public int run(ForkJoinPool pool) throws InterruptedException, ExecutionException {
+        return start(pool).get();
+    }
+    
+    public int getRoundCount() {
+        return stats.length;
+    }
+    
+    public RoundStats getRoundStats(int round) {
+        return stats[round];
+    }
+    
+    public List<RoundStats> getAllRoundStats() {
+        return Collections.unmodifiableList(Arrays.asList(stats));
+    }
+    
+    public long getCompletedMatches() {
+        long completed = 0;
+        for (RoundStats round : stats) {
+            completed += round.getCompletedMatches();
+        }
+        return completed;
+    }
+    
+    public long getTotalMatches() {
+        return stats.length == 0 ? 0 : roundOffsets[stats.length - 1] + winners[stats.length - 1].length;
+    }
+    
+    public Board getRoundBoard(int round) {
+        return roundBoards[round];
+    }
+    
+    public int getEntrantCount() {
+        return entrants;
+    }
+    
+    private int entrantA(int round, int match) {
+        return round == 0 ? 2 * match : winners[round - 1][2 * match];
+    }
+    
+    private int entrantB(int round, int match) {
+        if (round == 0) {
+            return 2 * match + 1 < entrants ? 2 * match + 1 : NO_ENTRANT;
+        }
+        return 2 * match + 1 < winners[round - 1].length ? winners[round - 1][2 * match + 1] : NO_ENTRANT;
+    }
+    
+    private void playMatch(int round, int match) {
+        RoundStats roundStats = stats[round];
+        roundStats.markStarted();
+        
+        int a = entrantA(round, match);
+        int b = entrantB(round, match);
+        int winner = a;
+        if (b != NO_ENTRANT) {
+            int index = roundOffsets[round] + match;
+            int first = (index & 1) == 0 ? a : b;
+            int second = first == a ? b : a;
+            long matchSeed = Mix64.mix(seed + index * 0x9E3779B97F4A7C15L);
+            Game game = new Game(roundBoards[round], Arrays.asList(String.valueOf(first), String.valueOf(second)),
+                new Dice(new Random(matchSeed)));
+            for (int turns = 0; !game.isGameEnded() && turns < MAX_TURNS; turns++) {
+                game.playTurn();
+            }
+            winner = game.isGameEnded()
+                ? (game.getWinner() == game.getPlayers().get(0) ? first : second)
+                : leader(game, first, second);
+        }
+        winners[round][match] = winner;
+        roundStats.markCompleted();
+        
+        if (round + 1 == stats.length) {
+            champion.complete(winner);
+        } else if (pending[round + 1].decrementAndGet(match / 2) == 0) {
+            new NextMatch(round + 1, match / 2).fork();
+        }
+    }
+    
+    // Settles a capped match: further along wins, a tie goes to the lower id
+    private static int leader(Game game, int first, int second) {
+        int firstPosition = game.getPlayers().get(0).getCurrentPosition();
+        int secondPosition = game.getPlayers().get(1).getCurrentPosition();
+        if (firstPosition != secondPosition) {
+            return firstPosition > secondPosition ? first : second;
+        }
+        return Math.min(first, second);
+    }
+    
+    // Splits the first round into batches so the pool's workers can steal them.
+    // Tasks are never serialized; RecursiveAction is only Serializable by inheritance
+    @SuppressWarnings("serial")
+    private class FirstRound extends RecursiveAction {
+        private final int from;
+        private final int to;
+        
+        FirstRound(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            try {
+                if (to - from <= LEAF_BATCH) {
+                    for (int match = from; match < to; match++) {
+                        playMatch(0, match);
+                    }
+                } else {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new FirstRound(from, mid), new FirstRound(mid, to));
+                }
+            } catch (RuntimeException e) {
+                champion.completeExceptionally(e);
+            }
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    private class NextMatch extends RecursiveAction {
+        private final int round;
+        private final int match;
+        
+        NextMatch(int round, int match) {
+            this.round = round;
+            this.match = match;
+        }
+        
+        @Override
+        protected void compute() {
+            try {
+                playMatch(round, match);
+            } catch (RuntimeException e) {
+                champion.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.snakeladder.util;
+
+/**
+ * The SplitMix64 finalizer, shared by everything that derives seeds or
+ * hashes from it. Dice streams, board fingerprints, optimizer chains and
+ * zone seeds are all reproduced from its output, so it must never change.
+ */
+public final class Mix64 {
+    private Mix64() {
+    }
+    
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}